@@ -0,0 +1,154 @@
+package minesweeper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import minesweeper.BitBoard;
+import minesweeper.Board;
+
+// Whole-board operations on BitBoard next to the same operations on Board:
+// generating and numbering a bomb layout, and showing every bomb after a loss
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitBoardBenchmark {
+    // Boards used by every invocation of the benchmarks that change a board
+    static final int BOARDS_PER_INVOCATION = 8;
+
+    @State(Scope.Thread)
+    public static class BoardSize {
+        @Param({ "100", "1000", "5000" })
+        int size;
+
+        @Param({ "0.01", "0.2" })
+        double density;
+
+        int numBombs;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.numBombs = Boards.numBombs(this.size, this.density);
+        }
+    }
+
+    // Fresh boards of both kinds, before the first click has generated a layout.
+    // Every invocation works through several boards, so the setup and timing
+    // around each invocation are spread over more than one operation
+    @State(Scope.Thread)
+    public static class FreshBoards {
+        Board[] boards = new Board[BOARDS_PER_INVOCATION];
+        BitBoard[] bitBoards = new BitBoard[BOARDS_PER_INVOCATION];
+
+        @Setup(Level.Invocation)
+        public void setup(BoardSize boardSize) {
+            for (int i = 0; i < BOARDS_PER_INVOCATION; i++) {
+                this.boards[i] = new Board(boardSize.size, boardSize.size, boardSize.numBombs);
+                this.boards[i].setSeed(Boards.SEED);
+                this.bitBoards[i] = new BitBoard(boardSize.size, boardSize.size, boardSize.numBombs);
+                this.bitBoards[i].setSeed(Boards.SEED);
+            }
+        }
+    }
+
+    // Boards of both kinds with the same layout, opened in a corner, and a bomb to
+    // lose the game on. The boards share their seed, so the bomb is the same on all
+    // of them
+    @State(Scope.Thread)
+    public static class LaidOutBoards {
+        Board[] boards;
+        BitBoard[] bitBoards;
+        int bombX;
+        int bombY;
+
+        @Setup(Level.Invocation)
+        public void setup(BoardSize boardSize, FreshBoards freshBoards) {
+            this.boards = freshBoards.boards;
+            this.bitBoards = freshBoards.bitBoards;
+            for (int i = 0; i < BOARDS_PER_INVOCATION; i++) {
+                this.boards[i].openTile(0, 0);
+                this.bitBoards[i].openTile(0, 0);
+            }
+
+            Board board = this.boards[0];
+            this.bombX = boardSize.size - 1;
+            this.bombY = boardSize.size - 1;
+            while (!board.getTile(this.bombX, this.bombY).isBomb()) {
+                this.bombX = this.bombX > 0 ? this.bombX - 1 : boardSize.size - 1;
+                this.bombY -= this.bombX == boardSize.size - 1 ? 1 : 0;
+            }
+        }
+    }
+
+    // A laid out BitBoard for reading. Counting does not change the board, so it is
+    // set up once per trial
+    @State(Scope.Thread)
+    public static class LaidOutBitBoard {
+        BitBoard bitBoard;
+
+        @Setup(Level.Trial)
+        public void setup(BoardSize boardSize) {
+            this.bitBoard = new BitBoard(boardSize.size, boardSize.size, boardSize.numBombs);
+            this.bitBoard.setSeed(Boards.SEED);
+            this.bitBoard.openTile(0, 0);
+        }
+    }
+
+    // The first click places the bombs and numbers every tile
+    @Benchmark
+    @OperationsPerInvocation(BOARDS_PER_INVOCATION)
+    public void generateLayoutBoard(BoardSize boardSize, FreshBoards freshBoards, Blackhole blackhole) {
+        for (Board board : freshBoards.boards) {
+            board.openTile(boardSize.size / 2, boardSize.size / 2);
+            blackhole.consume(board);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS_PER_INVOCATION)
+    public void generateLayoutBitBoard(BoardSize boardSize, FreshBoards freshBoards, Blackhole blackhole) {
+        for (BitBoard bitBoard : freshBoards.bitBoards) {
+            bitBoard.openTile(boardSize.size / 2, boardSize.size / 2);
+            blackhole.consume(bitBoard);
+        }
+    }
+
+    // Opening a bomb shows every other bomb
+    @Benchmark
+    @OperationsPerInvocation(BOARDS_PER_INVOCATION)
+    public void loseBoard(LaidOutBoards boards, Blackhole blackhole) {
+        for (Board board : boards.boards) {
+            board.openTile(boards.bombX, boards.bombY);
+            blackhole.consume(board);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS_PER_INVOCATION)
+    public void loseBitBoard(LaidOutBoards boards, Blackhole blackhole) {
+        for (BitBoard bitBoard : boards.bitBoards) {
+            bitBoard.openTile(boards.bombX, boards.bombY);
+            blackhole.consume(bitBoard);
+        }
+    }
+
+    @Benchmark
+    public int countClosedSafeTiles(LaidOutBitBoard board) {
+        return board.bitBoard.countClosedSafeTiles();
+    }
+}
@@ -0,0 +1,112 @@
+package minesweeper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minesweeper.Board;
+
+// Benchmarks for the Board engine on square boards from 9x9 to 5000x5000, with
+// sparse (1%) and dense (20%) bomb layouts
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @State(Scope.Thread)
+    public static class BoardSize {
+        @Param({ "9", "100", "1000", "5000" })
+        int size;
+
+        @Param({ "0.01", "0.2" })
+        double density;
+
+        int numBombs;
+        int[] bombs;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.numBombs = Boards.numBombs(this.size, this.density);
+            this.bombs = Boards.bombLayout(this.size, this.numBombs);
+        }
+    }
+
+    // A fresh board, before the first click has generated a layout
+    @State(Scope.Thread)
+    public static class FreshBoard {
+        Board board;
+
+        @Setup(Level.Invocation)
+        public void setup(BoardSize boardSize) {
+            this.board = new Board(boardSize.size, boardSize.size, boardSize.numBombs);
+            this.board.setSeed(Boards.SEED);
+        }
+    }
+
+    // An unopened board with the seeded layout already in place
+    @State(Scope.Thread)
+    public static class LaidOutBoard {
+        Board board;
+
+        @Setup(Level.Invocation)
+        public void setup(BoardSize boardSize) {
+            this.board = Boards.withLayout(boardSize.size, boardSize.bombs);
+        }
+    }
+
+    // The same layout for reading only. Checking victory does not change the board,
+    // so it is set up once per trial
+    @State(Scope.Thread)
+    public static class ReadOnlyBoard {
+        Board board;
+
+        @Setup(Level.Trial)
+        public void setup(BoardSize boardSize) {
+            this.board = Boards.withLayout(boardSize.size, boardSize.bombs);
+        }
+    }
+
+    @Benchmark
+    public Board construct(BoardSize boardSize) {
+        return new Board(boardSize.size, boardSize.size, boardSize.numBombs);
+    }
+
+    // The first click generates the bomb layout and opens the blank area around it
+    @Benchmark
+    public Board generateBombLayout(BoardSize boardSize, FreshBoard freshBoard) {
+        freshBoard.board.openTile(boardSize.size / 2, boardSize.size / 2);
+        return freshBoard.board;
+    }
+
+    // Opens the blank area around the middle of the board, which is free of bombs
+    @Benchmark
+    public Board openTileCascade(BoardSize boardSize, LaidOutBoard laidOutBoard) {
+        laidOutBoard.board.openTile(boardSize.size / 2, boardSize.size / 2);
+        return laidOutBoard.board;
+    }
+
+    // Same as openTileCascade with the whole cascade on the calling thread
+    @Benchmark
+    public Board openTileCascadeSequential(BoardSize boardSize, LaidOutBoard laidOutBoard) {
+        laidOutBoard.board.setParallelCascadeThreshold(Integer.MAX_VALUE);
+        laidOutBoard.board.openTile(boardSize.size / 2, boardSize.size / 2);
+        return laidOutBoard.board;
+    }
+
+    @Benchmark
+    public boolean checkVictory(ReadOnlyBoard readOnlyBoard) {
+        return readOnlyBoard.board.checkVictory();
+    }
+}
@@ -0,0 +1,44 @@
+package minesweeper.benchmark;
+
+import java.util.Arrays;
+
+import minesweeper.Board;
+
+// Builds boards with a fixed, seeded bomb layout so every benchmark invocation
+// starts from the same state
+class Boards {
+    static final long SEED = 4100;
+
+    // Returns the tile indices (y * size + x) of a seeded bomb layout generated by
+    // a first click in the middle of the board
+    static int[] bombLayout(int size, int numBombs) {
+        Board board = new Board(size, size, numBombs);
+        board.setSeed(SEED);
+        board.openTile(size / 2, size / 2);
+
+        int[] bombs = new int[numBombs];
+        int i = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (board.getTile(x, y).isBomb()) {
+                    bombs[i++] = y * size + x;
+                }
+            }
+        }
+        return Arrays.copyOf(bombs, i);
+    }
+
+    // Creates an unopened board with the given bomb layout
+    static Board withLayout(int size, int[] bombs) {
+        Board board = new Board(size, size, Math.max(bombs.length, 1));
+        board.preventAutoGeneratingBombLayout();
+        for (int bomb : bombs) {
+            board.placeBombAtTile(bomb % size, bomb / size);
+        }
+        return board;
+    }
+
+    static int numBombs(int size, double density) {
+        return Math.max(1, (int) (size * size * density));
+    }
+}
@@ -0,0 +1,60 @@
+package minesweeper.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minesweeper.ConcurrentBoard;
+
+// Clicks on random safe tiles of one shared ConcurrentBoard from every benchmark
+// thread, to see how the clicks per second scale with the number of players. Run
+// with -t to set the number of threads, e.g. -t 1, -t 4 and -t max
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentBoardBenchmark {
+    @State(Scope.Benchmark)
+    public static class SharedBoard {
+        @Param({ "0.01", "0.2" })
+        double density;
+
+        final int size = 2000;
+        ConcurrentBoard board;
+
+        // A new game per iteration, so most clicks don't land on open tiles
+        @Setup(Level.Iteration)
+        public void setup() {
+            this.board = new ConcurrentBoard(this.size, this.size, Boards.numBombs(this.size, this.density));
+            this.board.setSeed(Boards.SEED);
+            this.board.openTile(this.size / 2, this.size / 2);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public void clickSafeTile(SharedBoard sharedBoard, Player player) {
+        int x = player.random.nextInt(sharedBoard.size);
+        int y = player.random.nextInt(sharedBoard.size);
+        if (!sharedBoard.board.getTile(x, y).isBomb()) {
+            sharedBoard.board.openTile(x, y);
+        }
+    }
+}
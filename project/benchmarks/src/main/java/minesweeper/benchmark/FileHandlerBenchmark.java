@@ -0,0 +1,93 @@
+package minesweeper.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minesweeper.BinaryFileHandler;
+import minesweeper.Board;
+import minesweeper.CompressedFileHandler;
+import minesweeper.FileHandler;
+import minesweeper.GzipCodec;
+import minesweeper.RunLengthCodec;
+import minesweeper.TextFileHandler;
+
+// Benchmarks for saving and loading boards from 9x9 to 5000x5000
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileHandlerBenchmark {
+    @Param({ "9", "100", "1000", "5000" })
+    int size;
+
+    @Param({ "text", "binary", "gzip", "rle" })
+    String format;
+
+    FileHandler fileHandler;
+    Board board;
+    File saveFile;
+    File writeFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.fileHandler = fileHandlerFor(this.format);
+
+        // A board in the middle of a game, with a seeded layout and an opened area
+        this.board = new Board(this.size, this.size, Boards.numBombs(this.size, 0.15));
+        this.board.setSeed(Boards.SEED);
+        this.board.openTile(this.size / 2, this.size / 2);
+
+        this.saveFile = File.createTempFile("minesweeper-benchmark", ".save");
+        this.writeFile = File.createTempFile("minesweeper-benchmark", ".save");
+        this.fileHandler.writeToFile(this.board, this.saveFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.saveFile.delete();
+        this.writeFile.delete();
+    }
+
+    @Benchmark
+    public File write() throws IOException {
+        this.fileHandler.writeToFile(this.board, this.writeFile);
+        return this.writeFile;
+    }
+
+    @Benchmark
+    public Board read() throws IOException {
+        return this.fileHandler.readFromFile(this.saveFile);
+    }
+
+    static FileHandler fileHandlerFor(String format) {
+        switch (format) {
+            case "text":
+                return new TextFileHandler();
+            case "binary":
+                return new BinaryFileHandler();
+            case "gzip":
+                return new CompressedFileHandler(new GzipCodec());
+            case "rle":
+                return new CompressedFileHandler(new RunLengthCodec());
+            default:
+                throw new IllegalArgumentException("Unknown save format: " + format);
+        }
+    }
+}
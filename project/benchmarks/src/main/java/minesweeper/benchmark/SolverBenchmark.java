@@ -0,0 +1,159 @@
+package minesweeper.benchmark;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+import minesweeper.simulation.SimulationResult;
+import minesweeper.simulation.Simulator;
+import minesweeper.simulation.Strategy;
+import minesweeper.solver.NoGuessGenerator;
+import minesweeper.solver.ProbabilityEngine;
+import minesweeper.solver.ProbabilityStrategy;
+import minesweeper.solver.Solver;
+import minesweeper.solver.SolverStrategy;
+
+// Benchmarks for the solvers: solving large boards from the first click,
+// calculating mine probabilities on a 1000x1000 frontier, generating layouts
+// that need no guessing, and whole games per second on the standard presets
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+    // A board after the first click in the middle, with a solver following it
+    @State(Scope.Thread)
+    public static class OpenedBoard {
+        @Param({ "100", "1000" })
+        int size;
+
+        @Param({ "0.1", "0.16" })
+        double density;
+
+        Board board;
+        Solver solver;
+
+        @Setup(Level.Trial)
+        public void setupTrial() {
+            this.board = new Board(this.size, this.size, Boards.numBombs(this.size, this.density));
+            this.solver = new Solver(this.board);
+        }
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            this.board.reset(Boards.SEED);
+            this.board.openTile(this.size / 2, this.size / 2);
+            this.solver.reset();
+        }
+    }
+
+    // A 1000x1000 board solved until a guess is needed, with the probability engine
+    // following it
+    @State(Scope.Thread)
+    public static class StuckBoard {
+        Board board;
+        ProbabilityEngine engine;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.board = new Board(1000, 1000, Boards.numBombs(1000, 0.16));
+            this.board.setSeed(Boards.SEED);
+            Solver solver = new Solver(this.board);
+            this.board.openTile(500, 500);
+            solver.solve();
+            solver.detach();
+            this.engine = new ProbabilityEngine(this.board);
+        }
+    }
+
+    // Generates no guessing layouts on the common pool, each from a new base seed so
+    // the time is averaged over many layouts
+    @State(Scope.Thread)
+    public static class Generator {
+        @Param({ "easy", "medium", "hard" })
+        String preset;
+
+        BoardConfig config;
+        NoGuessGenerator generator;
+        long nextBaseSeed = Boards.SEED;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.config = BoardConfig.parse(this.preset);
+            this.generator = new NoGuessGenerator();
+        }
+    }
+
+    // Plays batches of games on one thread, for games per second on a single core
+    @State(Scope.Thread)
+    public static class Games {
+        @Param({ "easy", "medium", "hard" })
+        String preset;
+
+        @Param({ "solver", "probability" })
+        String strategy;
+
+        ForkJoinPool pool;
+        Simulator simulator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.pool = new ForkJoinPool(1);
+            Supplier<Strategy> strategyFactory = this.strategy.equals("solver") ? SolverStrategy::new
+                    : ProbabilityStrategy::new;
+            this.simulator = new Simulator(BoardConfig.parse(this.preset), strategyFactory, this.pool);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.pool.shutdown();
+        }
+    }
+
+    // Makes every move that is certain, until the solver has to guess
+    @Benchmark
+    public int solve(OpenedBoard openedBoard) {
+        return openedBoard.solver.solve();
+    }
+
+    // Counts every frontier component from scratch
+    @Benchmark
+    public int probabilities(StuckBoard stuckBoard) {
+        stuckBoard.engine.reset();
+        stuckBoard.engine.update();
+        return stuckBoard.engine.findSafestTile();
+    }
+
+    // Finds a layout that can be cleared from a click in the middle
+    @Benchmark
+    public OptionalLong noGuessLayout(Generator generator) {
+        generator.nextBaseSeed += NoGuessGenerator.DEFAULT_MAX_ATTEMPTS;
+        return generator.generator.findSeed(generator.config, generator.config.getWidth() / 2,
+                generator.config.getHeight() / 2, generator.nextBaseSeed);
+    }
+
+    // Plays 1000 games, guessing at random or by probability whenever nothing is
+    // certain
+    @Benchmark
+    public SimulationResult playGames(Games games) {
+        return games.simulator.run(Boards.SEED, 1000);
+    }
+}
@@ -20,6 +20,14 @@ public class App extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Loads the tile images before any game is shown
+        if (SpriteCache.getInstance().hasFailedResources()) {
+            Alert errorAlert = new Alert(AlertType.ERROR, "Failed to load game resources. Try reinstalling the game.",
+                    ButtonType.OK);
+            errorAlert.showAndWait();
+            System.exit(0);
+        }
+
         FXMLLoader mainLoader = new FXMLLoader(getClass().getResource("fxml/Main.fxml"));
         FXMLLoader gameLoader = new FXMLLoader(getClass().getResource("fxml/Game.fxml"));
 
@@ -33,17 +41,25 @@ public class App extends Application {
         // Set event handlers for buttons on start screen
 
         mainController.easyButton.setOnAction(e -> {
-            gameController.initGame(9, 9, 10);
+            gameController.setNoGuess(mainController.noGuessCheckBox.isSelected());
+            gameController.initGame(BoardConfig.EASY);
             primaryStage.setScene(gameScene);
         });
 
         mainController.mediumButton.setOnAction(e -> {
-            gameController.initGame(16, 16, 40);
+            gameController.setNoGuess(mainController.noGuessCheckBox.isSelected());
+            gameController.initGame(BoardConfig.MEDIUM);
             primaryStage.setScene(gameScene);
         });
 
         mainController.hardButton.setOnAction(e -> {
-            gameController.initGame(30, 16, 99);
+            gameController.setNoGuess(mainController.noGuessCheckBox.isSelected());
+            gameController.initGame(BoardConfig.HARD);
+            primaryStage.setScene(gameScene);
+        });
+
+        mainController.hugeButton.setOnAction(e -> {
+            gameController.initHugeGame();
             primaryStage.setScene(gameScene);
         });
 
@@ -53,7 +69,8 @@ public class App extends Application {
                 FileChooser fileChooser = new FileChooser();
                 fileChooser.setTitle("Open save file");
                 fileChooser.setInitialDirectory(new File("."));
-                fileChooser.getExtensionFilters().addAll(new ExtensionFilter("Minesweeper data files (.txt)", "*.txt"));
+                fileChooser.getExtensionFilters().addAll(
+                        new ExtensionFilter("Minesweeper data files (.txt, .msb, .msz)", "*.txt", "*.msb", "*.msz"));
                 File saveFile = fileChooser.showOpenDialog(primaryStage);
 
                 if (saveFile != null) {
@@ -79,7 +96,9 @@ public class App extends Application {
                 fileChooser.setTitle("Save game");
                 fileChooser.setInitialDirectory(new File("."));
                 fileChooser.setInitialFileName("minesweeper-save-file.txt");
-                fileChooser.getExtensionFilters().addAll(new ExtensionFilter("Minesweeper data files (.txt)", "*.txt"));
+                fileChooser.getExtensionFilters().addAll(new ExtensionFilter("Minesweeper data files (.txt)", "*.txt"),
+                        new ExtensionFilter("Minesweeper binary files (.msb)", "*.msb"),
+                        new ExtensionFilter("Minesweeper compressed files (.msz)", "*.msz"));
                 File saveFile = fileChooser.showSaveDialog(primaryStage);
 
                 if (saveFile != null) {
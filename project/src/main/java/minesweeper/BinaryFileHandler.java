@@ -0,0 +1,164 @@
+package minesweeper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+// Saves boards in a compact binary format: a fixed size header followed by three
+// bit planes (bomb, flag and open) with one bit per tile, in tile index order.
+// Files are written through a FileChannel and read through a MappedByteBuffer
+public class BinaryFileHandler implements FileHandler {
+    static final byte[] MAGIC = { 'M', 'S', 'W', 'B' };
+    static final byte VERSION = 1;
+
+    // Magic, version, flags, two reserved bytes, width, height and number of bombs
+    static final int HEADER_SIZE = 20;
+
+    private static final int FLAG_LAYOUT_GENERATED = 1;
+    private static final int FLAG_WON = 1 << 1;
+    private static final int FLAG_GAME_OVER = 1 << 2;
+
+    // The tile bit stored in each plane, in file order
+    private static final int[] PLANES = { Tile.BOMB, Tile.FLAGGED, Tile.OPEN };
+
+    // Size of the buffer used to write the planes (in bytes)
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    public Board readFromFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            return readBoard(buffer);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            // File contains illegal values or is cut short
+            throw new IOException("Invalid save file!");
+        }
+    }
+
+    public void writeToFile(Board board, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeBoard(board, channel, ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE));
+        }
+    }
+
+    // Writes the header and planes of a board to a channel, through a buffer of at
+    // least HEADER_SIZE bytes
+    static void writeBoard(Board board, WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        writeHeader(board, buffer);
+
+        for (int plane : PLANES) {
+            writePlane(board, plane, buffer, channel);
+        }
+
+        buffer.flip();
+        writeFully(buffer, channel);
+    }
+
+    // Reads a board from a buffer positioned at the start of the header
+    static Board readBoard(ByteBuffer buffer) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic[i] != MAGIC[i]) {
+                throw new IOException("Invalid save file!");
+            }
+        }
+        if (buffer.get() != VERSION) {
+            throw new IOException("Unsupported save file version!");
+        }
+
+        int flags = buffer.get();
+        buffer.getShort();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int numBombs = buffer.getInt();
+
+        Board board = new Board(width, height, numBombs);
+        board.setBoardProps(numBombs, (flags & FLAG_LAYOUT_GENERATED) != 0, (flags & FLAG_WON) != 0,
+                (flags & FLAG_GAME_OVER) != 0);
+
+        int numTiles = width * height;
+        int planeSize = planeSize(numTiles);
+        if (buffer.remaining() < PLANES.length * planeSize) {
+            throw new IOException("Invalid save file!");
+        }
+
+        // Combines the bits for each tile from the three planes
+        int bombPlane = buffer.position();
+        int flagPlane = bombPlane + planeSize;
+        int openPlane = flagPlane + planeSize;
+        for (int i = 0; i < planeSize; i++) {
+            int bombs = buffer.get(bombPlane + i);
+            int flagged = buffer.get(flagPlane + i);
+            int opened = buffer.get(openPlane + i);
+            int firstTile = i << 3;
+            int lastTile = Math.min(firstTile + 8, numTiles);
+
+            for (int tile = firstTile; tile < lastTile; tile++) {
+                int bit = 1 << (tile - firstTile);
+                int state = ((bombs & bit) != 0 ? Tile.BOMB : 0) | ((flagged & bit) != 0 ? Tile.FLAGGED : 0)
+                        | ((opened & bit) != 0 ? Tile.OPEN : 0);
+                if (state != 0) {
+                    board.loadTileState(tile, (byte) state);
+                }
+            }
+        }
+        buffer.position(openPlane + planeSize);
+
+        // Numbers are calculated once all bombs are in place
+        board.calculateTileNumbers();
+        return board;
+    }
+
+    private static void writeHeader(Board board, ByteBuffer buffer) {
+        int flags = (board.isBombLayoutGenerated() ? FLAG_LAYOUT_GENERATED : 0) | (board.hasWon() ? FLAG_WON : 0)
+                | (board.isGameOver() ? FLAG_GAME_OVER : 0);
+
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        buffer.putShort((short) 0);
+        buffer.putInt(board.getWidth());
+        buffer.putInt(board.getHeight());
+        buffer.putInt(board.getNumBombs());
+    }
+
+    // Packs one tile bit of every tile into the buffer, eight tiles per byte,
+    // writing the buffer to the channel whenever it fills up
+    private static void writePlane(Board board, int tileBit, ByteBuffer buffer, WritableByteChannel channel)
+            throws IOException {
+        int numTiles = board.getWidth() * board.getHeight();
+        for (int firstTile = 0; firstTile < numTiles; firstTile += 8) {
+            int lastTile = Math.min(firstTile + 8, numTiles);
+            int bits = 0;
+            for (int tile = firstTile; tile < lastTile; tile++) {
+                if ((board.getTileState(tile) & tileBit) != 0) {
+                    bits |= 1 << (tile - firstTile);
+                }
+            }
+
+            if (!buffer.hasRemaining()) {
+                buffer.flip();
+                writeFully(buffer, channel);
+                buffer.clear();
+            }
+            buffer.put((byte) bits);
+        }
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int planeSize(int numTiles) {
+        return (numTiles + 7) >>> 3;
+    }
+}
@@ -0,0 +1,462 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// A board that keeps each property of the tiles in a bit plane: one long[] for
+// bombs, open and flagged tiles, with the bit of tile (x, y) at bit x % 64 of word
+// y * wordsPerRow + x / 64. The numbers are four more planes, one per bit of the
+// count, calculated 64 tiles at a time with bitwise adders, and showing the bombs
+// at the end of a game is a word-wide or. Plays like Board and gives the same
+// bomb layout for the same seed and first opened tile
+public class BitBoard implements GameBoard {
+    private static final int[] NEIGHBOUR_DX = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final int[] NEIGHBOUR_DY = { -1, -1, -1, 0, 0, 1, 1, 1 };
+
+    private final int width;
+    private final int height;
+    private final int numBombs;
+    private final int wordsPerRow;
+    // Bits of the last word of each row that are tiles on the board
+    private final long lastWordMask;
+
+    private final long[] bombs;
+    private final long[] open;
+    private final long[] flagged;
+    // Bits 0 to 3 of the number of bombs in the 3x3 area around each tile
+    private final long[][] counts = new long[4][];
+
+    private int[] cascadeQueue;
+    private boolean isBombLayoutGenerated;
+    private boolean hasWon;
+    private boolean gameOver;
+    private int bombCount;
+    private int openedSafeTileCount;
+    private int flagCount;
+    private RandomGenerator random = new SplittableRandom();
+    private List<BoardListener> listeners = new ArrayList<>();
+
+    public BitBoard(int width, int height, int numBombs) {
+        if (width * height <= numBombs) {
+            throw new IllegalArgumentException("Number of bombs must not match or exceed number of tiles");
+        }
+        if (width < 4 || height < 4 || numBombs < 1) {
+            throw new IllegalArgumentException("Board dimensions must be at least 4x4");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.numBombs = numBombs;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.lastWordMask = -1L >>> (-width & 63);
+
+        int numWords = this.wordsPerRow * height;
+        this.bombs = new long[numWords];
+        this.open = new long[numWords];
+        this.flagged = new long[numWords];
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] = new long[numWords];
+        }
+    }
+
+    // Copies the tiles and game state of a board
+    public BitBoard(Board board) {
+        this(board.getWidth(), board.getHeight(), board.getNumBombs());
+
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                byte state = board.getTileState(y * this.width + x);
+                int word = this.wordOf(x, y);
+                long bit = 1L << x;
+                if ((state & Tile.BOMB) != 0) {
+                    this.bombs[word] |= bit;
+                }
+                if ((state & Tile.OPEN) != 0) {
+                    this.open[word] |= bit;
+                }
+                if ((state & Tile.FLAGGED) != 0) {
+                    this.flagged[word] |= bit;
+                }
+            }
+        }
+        this.calculateTileNumbers();
+
+        this.isBombLayoutGenerated = board.isBombLayoutGenerated();
+        this.hasWon = board.hasWon();
+        this.gameOver = board.isGameOver();
+        this.bombCount = board.getBombCount();
+        this.openedSafeTileCount = board.getOpenedSafeTileCount();
+        this.flagCount = board.getFlagCount();
+    }
+
+    // Word of the planes holding tile (x, y). Shifts of a long use only the lowest
+    // 6 bits of the distance, so 1L << x is the bit of the tile in that word
+    private int wordOf(int x, int y) {
+        return y * this.wordsPerRow + (x >>> 6);
+    }
+
+    private static boolean isSet(long[] plane, int word, int x) {
+        return (plane[word] & 1L << x) != 0;
+    }
+
+    // Places the bombs like Board.generateBombLayout, drawing the same random
+    // numbers, and calculates the numbers once they are all placed
+    private void generateBombLayout(int firstX, int firstY) {
+        int numTiles = this.width * this.height;
+        int[] safeTiles = new int[9];
+        int numSafeTiles = Board.findSafeTiles(this.width, this.height, this.numBombs, firstX, firstY, safeTiles);
+
+        int numLegalTiles = numTiles - numSafeTiles;
+        for (int j = numLegalTiles - this.numBombs; j < numLegalTiles; j++) {
+            int index = Board.legalTileIndex(this.random.nextInt(j + 1), safeTiles, numSafeTiles);
+            if (isSet(this.bombs, this.wordOf(index % this.width, index / this.width), index % this.width)) {
+                index = Board.legalTileIndex(j, safeTiles, numSafeTiles);
+            }
+
+            int x = index % this.width;
+            this.bombs[this.wordOf(x, index / this.width)] |= 1L << x;
+            this.bombCount++;
+        }
+
+        this.calculateTileNumbers();
+        this.isBombLayoutGenerated = true;
+    }
+
+    // Counts the bombs around every tile, 64 tiles at a time. As in Board, the 3x3
+    // sum is split into a sum over a 3 tiles wide window in each row and a sum of
+    // the windows of three rows. The window of a row is the bomb plane added to
+    // itself shifted one tile left and right, with a full adder giving a 2-bit sum
+    // per tile. Two more adders sum three such rows into the 4-bit counts
+    private void calculateTileNumbers() {
+        long[][] above = new long[2][this.wordsPerRow];
+        long[][] current = new long[2][this.wordsPerRow];
+        long[][] below = new long[2][this.wordsPerRow];
+        this.sumBombsInRow(-1, above);
+        this.sumBombsInRow(0, current);
+
+        for (int y = 0; y < this.height; y++) {
+            this.sumBombsInRow(y + 1, below);
+
+            int rowStart = y * this.wordsPerRow;
+            for (int w = 0; w < this.wordsPerRow; w++) {
+                long a0 = above[0][w];
+                long a1 = above[1][w];
+                long b0 = current[0][w];
+                long b1 = current[1][w];
+                long c0 = below[0][w];
+                long c1 = below[1][w];
+
+                // Above + current, up to 6 in 3 bits
+                long s0 = a0 ^ b0;
+                long carry0 = a0 & b0;
+                long s1 = a1 ^ b1 ^ carry0;
+                long s2 = (a1 & b1) | (carry0 & (a1 ^ b1));
+
+                // Plus below, up to 9 in 4 bits
+                long t0 = s0 ^ c0;
+                long carry1 = s0 & c0;
+                long t1 = s1 ^ c1 ^ carry1;
+                long carry2 = (s1 & c1) | (carry1 & (s1 ^ c1));
+                long t2 = s2 ^ carry2;
+                long t3 = s2 & carry2;
+
+                this.counts[0][rowStart + w] = t0;
+                this.counts[1][rowStart + w] = t1;
+                this.counts[2][rowStart + w] = t2;
+                this.counts[3][rowStart + w] = t3;
+            }
+
+            long[][] reused = above;
+            above = current;
+            current = below;
+            below = reused;
+        }
+    }
+
+    // Sets sums[0] and sums[1] to the low and high bits of the number of bombs in
+    // the 3 tiles wide window around each tile in the given row, or to 0 for rows
+    // outside the board. Bits past the right edge of the board are never bombs, so
+    // they shift in as zeros
+    private void sumBombsInRow(int y, long[][] sums) {
+        if (y < 0 || y >= this.height) {
+            Arrays.fill(sums[0], 0);
+            Arrays.fill(sums[1], 0);
+            return;
+        }
+
+        int rowStart = y * this.wordsPerRow;
+        for (int w = 0; w < this.wordsPerRow; w++) {
+            long center = this.bombs[rowStart + w];
+            long previous = w > 0 ? this.bombs[rowStart + w - 1] : 0;
+            long next = w + 1 < this.wordsPerRow ? this.bombs[rowStart + w + 1] : 0;
+            // Bomb of the tile to the left and right of each tile
+            long left = center << 1 | previous >>> 63;
+            long right = center >>> 1 | next << 63;
+
+            sums[0][w] = left ^ center ^ right;
+            sums[1][w] = (left & center) | (right & (left ^ center));
+        }
+    }
+
+    private int bombsAround(int word, int x) {
+        long bit = 1L << x;
+        return ((this.counts[0][word] & bit) != 0 ? 1 : 0) | ((this.counts[1][word] & bit) != 0 ? 2 : 0)
+                | ((this.counts[2][word] & bit) != 0 ? 4 : 0) | ((this.counts[3][word] & bit) != 0 ? 8 : 0);
+    }
+
+    private void checkBounds(int x, int y, String message) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    @Override
+    public Tile getTile(int x, int y) {
+        this.checkBounds(x, y, "Can't get tile outside of board");
+        int word = this.wordOf(x, y);
+        byte state = Tile.pack(isSet(this.bombs, word, x), isSet(this.flagged, word, x), isSet(this.open, word, x));
+        return new Tile(Tile.withBombsAround(state, this.bombsAround(word, x)));
+    }
+
+    @Override
+    public void openTile(int x, int y) {
+        this.checkBounds(x, y, "Can't open tile outside of board");
+
+        if (!this.isBombLayoutGenerated) {
+            this.generateBombLayout(x, y);
+        }
+
+        int word = this.wordOf(x, y);
+        if (!this.isGameActive() || isSet(this.open, word, x) || isSet(this.flagged, word, x)) {
+            return;
+        }
+
+        this.open[word] |= 1L << x;
+        this.fireTileChanged(x, y);
+
+        if (isSet(this.bombs, word, x)) {
+            this.gameOver = true;
+            this.handleGameCompleted();
+            return;
+        }
+
+        this.openedSafeTileCount++;
+        if (this.bombsAround(word, x) == 0) {
+            this.cascadeOpenTiles(x, y);
+        }
+
+        if (this.checkVictory()) {
+            this.hasWon = true;
+            this.handleGameCompleted();
+        }
+    }
+
+    // Opens the blank area around an opened blank tile breadth-first, like Board
+    private void cascadeOpenTiles(int startX, int startY) {
+        int minCapacity = 2 * (this.width + this.height);
+        if (this.cascadeQueue == null || this.cascadeQueue.length < minCapacity) {
+            this.cascadeQueue = new int[Integer.highestOneBit(minCapacity) << 1];
+        }
+
+        int[] queue = this.cascadeQueue;
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startY * this.width + startX;
+
+        while (head != tail) {
+            int index = queue[head++ & mask];
+            int x = index % this.width;
+            int y = index / this.width;
+
+            for (int i = 0; i < 8; i++) {
+                int nextX = x + NEIGHBOUR_DX[i];
+                int nextY = y + NEIGHBOUR_DY[i];
+                if (nextX < 0 || nextY < 0 || nextX >= this.width || nextY >= this.height) {
+                    continue;
+                }
+
+                int word = this.wordOf(nextX, nextY);
+                if (isSet(this.open, word, nextX) || isSet(this.flagged, word, nextX)) {
+                    continue;
+                }
+
+                this.open[word] |= 1L << nextX;
+                this.openedSafeTileCount++;
+                this.fireTileChanged(nextX, nextY);
+
+                if (this.bombsAround(word, nextX) == 0) {
+                    if (tail - head == queue.length) {
+                        int[] grown = new int[queue.length << 1];
+                        for (int j = head; j != tail; j++) {
+                            grown[j - head] = queue[j & mask];
+                        }
+                        this.cascadeQueue = grown;
+                        queue = grown;
+                        mask = queue.length - 1;
+                        tail -= head;
+                        head = 0;
+                    }
+                    queue[tail++ & mask] = nextY * this.width + nextX;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flagTile(int x, int y) {
+        this.checkBounds(x, y, "Can't flag tile outside of board");
+
+        int word = this.wordOf(x, y);
+        if (!isSet(this.open, word, x)) {
+            this.flagged[word] ^= 1L << x;
+            this.flagCount += isSet(this.flagged, word, x) ? 1 : -1;
+            this.fireTileChanged(x, y);
+        }
+    }
+
+    // Shows the bombs a word at a time: opened on a loss and flagged on a win. Only
+    // the changed tiles are looked at one by one, to tell the listeners
+    private void handleGameCompleted() {
+        long[] plane = this.gameOver ? this.open : this.flagged;
+        for (int word = 0; word < plane.length; word++) {
+            long changed = this.bombs[word] & ~plane[word];
+            if (changed == 0) {
+                continue;
+            }
+
+            plane[word] |= changed;
+            if (plane == this.flagged) {
+                this.flagCount += Long.bitCount(changed);
+            }
+            if (!this.listeners.isEmpty()) {
+                int y = word / this.wordsPerRow;
+                int firstX = (word % this.wordsPerRow) << 6;
+                for (long bits = changed; bits != 0; bits &= bits - 1) {
+                    this.fireTileChanged(firstX + Long.numberOfTrailingZeros(bits), y);
+                }
+            }
+        }
+
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).gameCompleted();
+        }
+    }
+
+    // Number of closed tiles without a bomb, counted a word at a time. Always equal
+    // to getClosedSafeTileCount(), which is kept as a running count
+    public int countClosedSafeTiles() {
+        int closed = 0;
+        for (int rowEnd = this.wordsPerRow; rowEnd <= this.open.length; rowEnd += this.wordsPerRow) {
+            for (int word = rowEnd - this.wordsPerRow; word < rowEnd - 1; word++) {
+                closed += Long.bitCount(~(this.open[word] | this.bombs[word]));
+            }
+            closed += Long.bitCount(this.lastWordMask & ~(this.open[rowEnd - 1] | this.bombs[rowEnd - 1]));
+        }
+        return closed;
+    }
+
+    @Override
+    public void addListener(BoardListener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(BoardListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void fireTileChanged(int x, int y) {
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).tileChanged(x, y);
+        }
+    }
+
+    // Makes the bomb layout reproducible, with the same layouts as Board
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Clears the board in place for a new game, like Board.reset()
+    @Override
+    public void reset() {
+        Arrays.fill(this.bombs, 0);
+        Arrays.fill(this.open, 0);
+        Arrays.fill(this.flagged, 0);
+        for (long[] count : this.counts) {
+            Arrays.fill(count, 0);
+        }
+        this.isBombLayoutGenerated = false;
+        this.hasWon = false;
+        this.gameOver = false;
+        this.bombCount = 0;
+        this.openedSafeTileCount = 0;
+        this.flagCount = 0;
+    }
+
+    // Same as reset(), with the next bomb layout seeded by the given seed
+    public void reset(long seed) {
+        this.reset();
+        this.setSeed(seed);
+    }
+
+    @Override
+    public boolean checkVictory() {
+        return this.getClosedSafeTileCount() == 0;
+    }
+
+    @Override
+    public boolean isGameActive() {
+        return !(this.hasWon || this.gameOver);
+    }
+
+    public boolean isBombLayoutGenerated() {
+        return this.isBombLayoutGenerated;
+    }
+
+    public boolean hasWon() {
+        return this.hasWon;
+    }
+
+    public boolean isGameOver() {
+        return this.gameOver;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getNumBombs() {
+        return this.numBombs;
+    }
+
+    public int getBombCount() {
+        return this.bombCount;
+    }
+
+    public int getOpenedSafeTileCount() {
+        return this.openedSafeTileCount;
+    }
+
+    public int getClosedSafeTileCount() {
+        return this.width * this.height - this.bombCount - this.openedSafeTileCount;
+    }
+
+    public int getFlagCount() {
+        return this.flagCount;
+    }
+
+    @Override
+    public int getMinesLeft() {
+        return (this.isBombLayoutGenerated ? this.bombCount : this.numBombs) - this.flagCount;
+    }
+}
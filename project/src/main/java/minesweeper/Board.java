@@ -2,18 +2,62 @@ package minesweeper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
-
-public class Board {
-    private Tile[][] board;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
+
+public class Board implements GameBoard {
+    // Queued tiles at which a cascade is handed to ParallelCascade. By then the
+    // blank area is large enough to be worth splitting between threads
+    static final int PARALLEL_CASCADE_THRESHOLD = 1024;
+    // Boards with at least this many tiles split whole-board passes into bands of
+    // rows that run in parallel
+    static final int PARALLEL_BOARD_THRESHOLD = 1 << 18;
+    private static final int ROWS_PER_BAND = 64;
+
+    // Tile states packed one byte per tile (see Tile) in a flat array indexed y *
+    // width + x
+    private byte[] tiles;
+    // Index offsets and coordinate deltas for the 8 tiles surrounding a tile
+    private int[] neighbourOffsets;
+    private static final int[] NEIGHBOUR_DX = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final int[] NEIGHBOUR_DY = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    // Reusable queue of tile indices for opening blank areas
+    private int[] cascadeQueue;
+    private int parallelCascadeThreshold = PARALLEL_CASCADE_THRESHOLD;
     private int height;
     private int width;
     private int numBombs;
     private boolean isBombLayoutGenerated;
     private boolean hasWon;
     private boolean gameOver;
+    // Running counts kept up to date by every method that changes a tile, so
+    // victory and statistics never need to scan the board
+    private int bombCount;
+    private int openedSafeTileCount;
+    private int flagCount;
+    // Source of randomness for the bomb layout
+    private RandomGenerator random = new SplittableRandom();
+    private List<BoardListener> listeners = new ArrayList<>();
 
     public Board(int width, int height, int numBombs) {
+        validate(width, height, numBombs);
+
+        this.height = height;
+        this.width = width;
+        this.numBombs = numBombs;
+
+        // Initiates the board with a closed, empty tile in each grid square
+        this.tiles = new byte[width * height];
+        this.neighbourOffsets = new int[] { -width - 1, -width, -width + 1, -1, 1, width - 1, width, width + 1 };
+    }
+
+    // Checks board dimensions and number of bombs without allocating a board. Shared
+    // with BoardConfig
+    static void validate(int width, int height, int numBombs) {
         if (width * height <= numBombs) {
             throw new IllegalArgumentException("Number of bombs must not match or exceed number of tiles");
         }
@@ -21,70 +65,153 @@ public class Board {
         if (width < 4 || height < 4 || numBombs < 1) {
             throw new IllegalArgumentException("Board dimensions must be at least 4x4");
         }
+    }
 
-        this.height = height;
-        this.width = width;
-        this.numBombs = numBombs;
+    // Places the bombs uniformly at random on the tiles that are not around the
+    // first opened tile. Uses Robert Floyd's algorithm for sampling without
+    // replacement, with the board itself as the set of already chosen tiles, so
+    // placement takes one random draw per bomb at any bomb density. ConcurrentBoard
+    // places its bombs the same way. On large boards, the numbers are calculated in
+    // one parallel pass once every bomb is placed, instead of nine scattered updates
+    // per bomb
+    void generateBombLayout(int firstX, int firstY) {
+        int[] safeTiles = new int[9];
+        int numSafeTiles = findSafeTiles(this.width, this.height, this.numBombs, firstX, firstY, safeTiles);
+
+        boolean bulkNumbers = this.tiles.length >= PARALLEL_BOARD_THRESHOLD;
+        int numLegalTiles = this.tiles.length - numSafeTiles;
+        for (int j = numLegalTiles - this.numBombs; j < numLegalTiles; j++) {
+            int index = legalTileIndex(this.random.nextInt(j + 1), safeTiles, numSafeTiles);
+
+            // If that tile already has a bomb, the newly available tile is picked instead
+            if ((this.tiles[index] & Tile.BOMB) != 0) {
+                index = legalTileIndex(j, safeTiles, numSafeTiles);
+            }
 
-        // Initiates the board with a tile class in each grid square
-        board = new Tile[this.height][this.width];
-        for (int y = 0; y < this.height; y++) {
-            for (int x = 0; x < this.width; x++) {
-                board[y][x] = new Tile();
+            this.tiles[index] |= Tile.BOMB;
+            this.bombCount++;
+            if (!bulkNumbers) {
+                this.addToBombsAround(index % this.width, index / this.width, 1);
             }
         }
+        if (bulkNumbers) {
+            this.calculateTileNumbers();
+        }
+        this.isBombLayoutGenerated = true;
     }
 
-    private void generateBombLayout(int firstX, int firstY) {
-        // Bombs must not be placed around the first opened tile
-        ArrayList<int[]> illegalPlacements = getCoordinatesForTilesAround(firstX, firstY);
-
-        // Itereates until the board is populated with the specified number of bombs
-        int i = 0;
-        Random random = new Random();
-        while (i < this.numBombs) {
-            int randRow = random.nextInt(this.height);
-            int randCol = random.nextInt(this.width);
-
-            int[] placement = { randCol, randRow };
-
-            // Checking whether a bomb is already selected to be on that tile
-            boolean illegalTile = false;
-            for (int[] illegalPlacement : illegalPlacements) {
-                if (Arrays.equals(placement, illegalPlacement)) {
-                    illegalTile = true;
-                    break;
+    // Fills in the indices of the tiles that must not get a bomb, in ascending
+    // order, and returns how many there are. Bombs must not be placed around the
+    // first opened tile. If the board is too crowded for that, only the first
+    // opened tile itself is kept free. Shared with BitBoard
+    static int findSafeTiles(int width, int height, int numBombs, int firstX, int firstY, int[] safeTiles) {
+        int numSafeTiles = 0;
+        if (width * height - 9 >= numBombs) {
+            for (int y = firstY - 1; y <= firstY + 1; y++) {
+                for (int x = firstX - 1; x <= firstX + 1; x++) {
+                    if (x >= 0 && y >= 0 && x < width && y < height) {
+                        safeTiles[numSafeTiles++] = y * width + x;
+                    }
                 }
             }
+        } else {
+            safeTiles[numSafeTiles++] = firstY * width + firstX;
+        }
+        return numSafeTiles;
+    }
 
-            // Places bomb if the placement is legal and there is no bomb there already
-            if (!illegalTile && !board[randRow][randCol].isBomb()) {
-                this.board[randRow][randCol].setBomb();
-                i++;
+    // Maps the n-th legal tile to its tile index by skipping the safe tiles, which
+    // are given in ascending order
+    static int legalTileIndex(int n, int[] safeTiles, int numSafeTiles) {
+        int index = n;
+        for (int i = 0; i < numSafeTiles; i++) {
+            if (safeTiles[i] <= index) {
+                index++;
             }
         }
+        return index;
+    }
 
-        // Runs function for calculating the number on each tile after bomb layout is
-        // generated
-        calculateTileNumbers();
+    // Gives each tile a number representing the amount of bombs in the 3x3 area
+    // around it. Only needed after tiles have been loaded or placed in bulk, since
+    // all other bomb changes update the numbers around them incrementally.
+    //
+    // The 3x3 sum is separable: each row is summed over a window of 3 tiles, and
+    // the number of a tile is the sum of the windows above, at and below it. Bands
+    // of rows are calculated independently, each reading the rows around it. A band
+    // only writes the number bits of its own rows, and only reads bomb bits, which
+    // no band changes, so bands need no synchronization
+    void calculateTileNumbers() {
+        this.forEachBand(minY -> this.calculateTileNumbers(minY, Math.min(minY + ROWS_PER_BAND, this.height)));
     }
 
-    // Gives each tile a number representing the amount of bombs around it
-    private void calculateTileNumbers() {
-        for (int y = 0; y < this.height; y++) {
+    private void calculateTileNumbers(int minY, int maxY) {
+        // Window sums of the rows above, at and below the current row, rotated as
+        // the band moves down
+        byte[] above = new byte[this.width];
+        byte[] current = new byte[this.width];
+        byte[] below = new byte[this.width];
+        this.sumBombsInRow(minY - 1, above);
+        this.sumBombsInRow(minY, current);
+
+        for (int y = minY; y < maxY; y++) {
+            this.sumBombsInRow(y + 1, below);
+
+            int rowStart = y * this.width;
             for (int x = 0; x < this.width; x++) {
-                ArrayList<int[]> tilesAroundCoords = this.getCoordinatesForTilesAround(x, y);
+                int index = rowStart + x;
+                this.tiles[index] = Tile.withBombsAround(this.tiles[index], above[x] + current[x] + below[x]);
+            }
 
-                int bombsAround = 0;
-                for (int[] coords : tilesAroundCoords) {
-                    Tile tileAround = this.getTile(coords[0], coords[1]);
-                    if (tileAround.isBomb()) {
-                        bombsAround++;
-                    }
-                }
+            byte[] reused = above;
+            above = current;
+            current = below;
+            below = reused;
+        }
+    }
 
-                Tile tile = this.getTile(x, y);
-                tile.setBombsAround(bombsAround);
+    // Sets each entry to the number of bombs in the 3 tiles wide window around the
+    // tile in the given row, or to 0 for rows outside the board
+    private void sumBombsInRow(int y, byte[] sums) {
+        if (y < 0 || y >= this.height) {
+            Arrays.fill(sums, (byte) 0);
+            return;
+        }
+
+        int rowStart = y * this.width;
+        int left = 0;
+        int center = this.tiles[rowStart] & Tile.BOMB;
+        for (int x = 0; x < this.width; x++) {
+            int right = x + 1 < this.width ? this.tiles[rowStart + x + 1] & Tile.BOMB : 0;
+            sums[x] = (byte) (left + center + right);
+            left = center;
+            center = right;
+        }
+    }
+
+    // Runs an action for every band of ROWS_PER_BAND rows, given the first row of
+    // the band. Bands run in parallel on the common ForkJoinPool on large boards
+    private void forEachBand(IntConsumer action) {
+        int numBands = (this.height + ROWS_PER_BAND - 1) / ROWS_PER_BAND;
+        IntStream bands = IntStream.range(0, numBands).map(band -> band * ROWS_PER_BAND);
+        if (this.tiles.length >= PARALLEL_BOARD_THRESHOLD) {
+            bands = bands.parallel();
+        }
+        bands.forEach(action);
+    }
+
+    // Adds a bomb (delta 1) or removes one (delta -1) from the number of every tile
+    // in the 3x3 area around the given tile
+    private void addToBombsAround(int x, int y, int delta) {
+        int minY = Math.max(y - 1, 0);
+        int maxY = Math.min(y + 1, this.height - 1);
+        int minX = Math.max(x - 1, 0);
+        int maxX = Math.min(x + 1, this.width - 1);
+
+        for (int j = minY; j <= maxY; j++) {
+            for (int i = minX; i <= maxX; i++) {
+                int index = this.indexOf(i, j);
+                this.tiles[index] += delta << Tile.BOMBS_AROUND_SHIFT;
             }
         }
     }
@@ -93,7 +220,11 @@ public class Board {
         if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
             throw new IllegalArgumentException("Can't get tile outside of board");
         }
-        return board[y][x];
+        return new Tile(this.tiles[this.indexOf(x, y)]);
+    }
+
+    private int indexOf(int x, int y) {
+        return y * this.width + x;
     }
 
     public void openTile(int x, int y) {
@@ -104,20 +235,22 @@ public class Board {
         // Generates the bomb layout before the first move
         if (!isBombLayoutGenerated) {
             generateBombLayout(x, y);
-            isBombLayoutGenerated = true;
         }
 
-        Tile selectedTile = getTile(x, y);
+        int index = this.indexOf(x, y);
         // Only open tile if game is active and the tile is not flagged
-        if (this.isGameActive() && !selectedTile.isOpen() && !selectedTile.isFlagged()) {
-            selectedTile.open();
+        if (this.isGameActive() && (this.tiles[index] & (Tile.OPEN | Tile.FLAGGED)) == 0) {
+            this.tiles[index] |= Tile.OPEN;
+            this.fireTileChanged(index);
 
-            if (selectedTile.isBomb()) {
+            if ((this.tiles[index] & Tile.BOMB) != 0) {
                 this.gameOver = true;
                 this.handleGameCompleted();
             } else {
-                // Recusively opens surrounding blank tiles
-                this.recurseOpenTile(x, y);
+                this.openedSafeTileCount++;
+
+                // Opens surrounding blank tiles
+                this.cascadeOpenTiles(index);
             }
 
             if (this.checkVictory()) {
@@ -127,86 +260,218 @@ public class Board {
         }
     }
 
-    private void recurseOpenTile(int x, int y) {
-        Tile selectedTile = getTile(x, y);
-        selectedTile.open();
+    // Opens the area of blank tiles connected to an opened tile, along with the
+    // numbered tiles bordering it. Runs breadth-first over a reusable ring buffer
+    // of tile indices, so large blank areas neither recurse nor allocate. Once the
+    // queue reaches the parallel cascade threshold, the rest of the area is opened
+    // on the common ForkJoinPool
+    private void cascadeOpenTiles(int startIndex) {
+        if (Tile.bombsAround(this.tiles[startIndex]) != 0) {
+            return;
+        }
+
+        int minCapacity = 2 * (this.width + this.height);
+        if (this.cascadeQueue == null || this.cascadeQueue.length < minCapacity) {
+            this.cascadeQueue = new int[Integer.highestOneBit(minCapacity) << 1];
+        }
 
-        if (selectedTile.getBombsAround() == 0) {
-            ArrayList<int[]> tilesAroundCoordinates = getCoordinatesForTilesAround(x, y);
-            for (int[] tileCoords : tilesAroundCoordinates) {
-                Tile nextTile = getTile(tileCoords[0], tileCoords[1]);
-                if (!nextTile.isOpen() && !nextTile.isFlagged()) {
-                    // If tile is not already open, is not flagged and has no bombs surrounding it,
-                    // continue recursing
-                    this.recurseOpenTile(tileCoords[0], tileCoords[1]);
+        int[] queue = this.cascadeQueue;
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startIndex;
+
+        while (head != tail) {
+            if (tail - head >= this.parallelCascadeThreshold) {
+                this.openInParallel(queue, head, tail);
+                return;
+            }
+
+            int index = queue[head++ & mask];
+            int x = index % this.width;
+            int y = index / this.width;
+
+            for (int i = 0; i < 8; i++) {
+                int nextX = x + NEIGHBOUR_DX[i];
+                int nextY = y + NEIGHBOUR_DY[i];
+                if (nextX < 0 || nextY < 0 || nextX >= this.width || nextY >= this.height) {
+                    continue;
+                }
+
+                // Tiles are marked open when queued, so each tile is visited only once
+                int nextIndex = index + this.neighbourOffsets[i];
+                if ((this.tiles[nextIndex] & (Tile.OPEN | Tile.FLAGGED)) == 0) {
+                    this.tiles[nextIndex] |= Tile.OPEN;
+                    this.openedSafeTileCount++;
+                    this.fireTileChanged(nextIndex);
+
+                    // Only continue from tiles that have no bombs surrounding them
+                    if (Tile.bombsAround(this.tiles[nextIndex]) == 0) {
+                        if (tail - head == queue.length) {
+                            queue = this.growCascadeQueue(head, tail);
+                            mask = queue.length - 1;
+                            tail -= head;
+                            head = 0;
+                        }
+                        queue[tail++ & mask] = nextIndex;
+                    }
                 }
             }
         }
     }
 
+    // Hands the queued tiles of a cascade to ParallelCascade, then counts the tiles
+    // it opened and tells the listeners about them from this thread
+    private void openInParallel(int[] queue, int head, int tail) {
+        int mask = queue.length - 1;
+        int[] frontier = new int[tail - head];
+        for (int i = head; i != tail; i++) {
+            frontier[i - head] = queue[i & mask];
+        }
+
+        ParallelCascade cascade = new ParallelCascade(this.tiles, this.width, this.height, !this.listeners.isEmpty());
+        cascade.run(ForkJoinPool.commonPool(), frontier);
+
+        this.openedSafeTileCount += cascade.getOpenedCount();
+        for (int[] opened : cascade.getOpened()) {
+            for (int index : opened) {
+                this.fireTileChanged(index);
+            }
+        }
+    }
+
+    // Doubles the capacity of the full cascade queue, moving its contents to the
+    // start of the new array
+    private int[] growCascadeQueue(int head, int tail) {
+        int[] queue = this.cascadeQueue;
+        int mask = queue.length - 1;
+        int[] grown = new int[queue.length << 1];
+        for (int i = head; i != tail; i++) {
+            grown[i - head] = queue[i & mask];
+        }
+
+        this.cascadeQueue = grown;
+        return grown;
+    }
+
     public void flagTile(int x, int y) {
         if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
             throw new IllegalArgumentException("Can't flag tile outside of board");
         }
 
-        Tile tile = this.getTile(x, y);
-        if (!tile.isOpen()) {
-            tile.toggleFlag();
+        int index = this.indexOf(x, y);
+        if ((this.tiles[index] & Tile.OPEN) == 0) {
+            this.tiles[index] ^= Tile.FLAGGED;
+            this.flagCount += (this.tiles[index] & Tile.FLAGGED) != 0 ? 1 : -1;
+            this.fireTileChanged(index);
         }
     }
 
+    // The game is won when there are no closed tiles left that do not contain a
+    // bomb
     public boolean checkVictory() {
-        for (int y = 0; y < this.height; y++) {
-            for (int x = 0; x < this.width; x++) {
-                Tile tile = this.getTile(x, y);
-
-                // Check if there exists a closed tile that does not contain a bomb
-                if (!tile.isOpen() && !tile.isBomb()) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+        return this.getClosedSafeTileCount() == 0;
     }
 
     private void handleGameCompleted() {
-        for (int y = 0; y < this.height; y++) {
-            for (int x = 0; x < this.width; x++) {
-                Tile tile = this.getTile(x, y);
-
+        for (int i = 0; i < this.tiles.length; i++) {
+            if ((this.tiles[i] & Tile.BOMB) != 0) {
                 // If game over: Open all tiles that contain a bomb
-                if (this.gameOver) {
-                    if (tile.isBomb()) {
-                        tile.open();
-                    }
+                if (this.gameOver && (this.tiles[i] & Tile.OPEN) == 0) {
+                    this.tiles[i] |= Tile.OPEN;
+                    this.fireTileChanged(i);
                 }
 
                 // If victory: Flag all bombs
-                else if (this.hasWon) {
-                    if (tile.isBomb() && !tile.isFlagged()) {
-                        tile.toggleFlag();
-                    }
+                else if (this.hasWon && (this.tiles[i] & Tile.FLAGGED) == 0) {
+                    this.tiles[i] |= Tile.FLAGGED;
+                    this.flagCount++;
+                    this.fireTileChanged(i);
                 }
             }
         }
+
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).gameCompleted();
+        }
     }
 
-    // Returns an ArrayList of coordinates for the 8 tiles surrounding the input
-    // coordinates
-    private ArrayList<int[]> getCoordinatesForTilesAround(int x, int y) {
-        ArrayList<int[]> tilesAround = new ArrayList<int[]>();
+    public void addListener(BoardListener listener) {
+        this.listeners.add(listener);
+    }
 
-        for (int i = x - 1; i <= x + 1; i++) {
-            for (int j = y - 1; j <= y + 1; j++) {
-                if (i >= 0 && j >= 0 && i < this.width && j < this.height) {
-                    int[] coordinateArray = { i, j };
-                    tilesAround.add(coordinateArray);
-                }
+    public void removeListener(BoardListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void fireTileChanged(int index) {
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+
+        int x = index % this.width;
+        int y = index / this.width;
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).tileChanged(x, y);
+        }
+    }
+
+    // Reports the 3x3 area around a tile as changed, for when the bomb on the tile
+    // changes the numbers around it
+    private void fireAreaChanged(int x, int y) {
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                this.fireTileChanged(this.indexOf(i, j));
             }
         }
+    }
 
-        return tilesAround;
+    // Sets the random generator used for the bomb layout, for instance a
+    // SplittableRandom or one of the generators in java.util.random
+    public void setRandomGenerator(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Random generator must not be null");
+        }
+        this.random = random;
+    }
+
+    // Sets the number of queued tiles at which a cascade continues in parallel.
+    // Integer.MAX_VALUE keeps every cascade on the calling thread
+    public void setParallelCascadeThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Parallel cascade threshold must be positive");
+        }
+        this.parallelCascadeThreshold = threshold;
+    }
+
+    // Makes the bomb layout reproducible: boards with the same dimensions, seed and
+    // first opened tile get the same layout
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Clears the board in place for a new game with the same dimensions and number
+    // of bombs, keeping the tile array and the random generator, so a restart
+    // allocates nothing. Listeners stay registered but are not told about the
+    // cleared tiles
+    public void reset() {
+        Arrays.fill(this.tiles, (byte) 0);
+        this.isBombLayoutGenerated = false;
+        this.hasWon = false;
+        this.gameOver = false;
+        this.bombCount = 0;
+        this.openedSafeTileCount = 0;
+        this.flagCount = 0;
+    }
+
+    // Same as reset(), with the next bomb layout seeded by the given seed
+    public void reset(long seed) {
+        this.reset();
+        this.setSeed(seed);
     }
 
     public void preventAutoGeneratingBombLayout() {
@@ -217,9 +482,13 @@ public class Board {
         if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
             throw new IllegalArgumentException("Can't open tile outside of board");
         }
-        
-        this.board[x][y].setBomb();
-        this.calculateTileNumbers();
+
+        int index = this.indexOf(x, y);
+        if ((this.tiles[index] & Tile.BOMB) == 0) {
+            this.setTileState(index, (byte) (this.tiles[index] | Tile.BOMB));
+            this.addToBombsAround(x, y, 1);
+            this.fireAreaChanged(x, y);
+        }
     }
 
     public void setTileProps(int x, int y, boolean bomb, boolean flagged, boolean open) {
@@ -227,8 +496,55 @@ public class Board {
             throw new IllegalArgumentException("Can't open tile outside of board");
         }
 
-        this.board[y][x] = new Tile(bomb, flagged, open);
-        calculateTileNumbers();
+        int index = this.indexOf(x, y);
+        boolean wasBomb = (this.tiles[index] & Tile.BOMB) != 0;
+        this.setTileState(index, Tile.pack(bomb, flagged, open));
+
+        if (bomb != wasBomb) {
+            this.addToBombsAround(x, y, bomb ? 1 : -1);
+            this.fireAreaChanged(x, y);
+        } else {
+            this.fireTileChanged(index);
+        }
+    }
+
+    // Sets tile properties without updating the numbers around the tile. Used by
+    // file handlers to load a whole board, after which they call
+    // calculateTileNumbers() once
+    void loadTileProps(int x, int y, boolean bomb, boolean flagged, boolean open) {
+        this.setTileState(this.indexOf(x, y), Tile.pack(bomb, flagged, open));
+    }
+
+    // Packed state of a tile (see Tile), for file handlers
+    byte getTileState(int index) {
+        return this.tiles[index];
+    }
+
+    // Sets the bomb, open and flag bits of a tile from a packed state without
+    // updating the numbers around it, like loadTileProps()
+    void loadTileState(int index, byte state) {
+        this.setTileState(index, state);
+    }
+
+    // Replaces the bomb, open and flag bits of a tile, keeping its number, and
+    // updates the running counts to match
+    private void setTileState(int index, byte state) {
+        byte oldState = this.tiles[index];
+        this.countTile(oldState, -1);
+        this.tiles[index] = (byte) ((state & ~Tile.BOMBS_AROUND_MASK) | (oldState & Tile.BOMBS_AROUND_MASK));
+        this.countTile(state, 1);
+    }
+
+    private void countTile(byte state, int sign) {
+        if ((state & Tile.BOMB) != 0) {
+            this.bombCount += sign;
+        } else if ((state & Tile.OPEN) != 0) {
+            this.openedSafeTileCount += sign;
+        }
+
+        if ((state & Tile.FLAGGED) != 0) {
+            this.flagCount += sign;
+        }
     }
 
     // Return a text string of board properties on the format "10 1 0 0" (for file
@@ -254,6 +570,18 @@ public class Board {
         return !(this.hasWon || this.gameOver);
     }
 
+    public boolean isBombLayoutGenerated() {
+        return this.isBombLayoutGenerated;
+    }
+
+    public boolean hasWon() {
+        return this.hasWon;
+    }
+
+    public boolean isGameOver() {
+        return this.gameOver;
+    }
+
     public int getHeight() {
         return this.height;
     }
@@ -266,12 +594,40 @@ public class Board {
         return numBombs;
     }
 
+    // Statistics for the UI and for bots. All of them are kept as running counts
+    // and are answered in constant time
+
+    // Number of bombs currently placed on the board. This is 0 until the bomb
+    // layout is generated by the first opened tile
+    public int getBombCount() {
+        return this.bombCount;
+    }
+
+    public int getOpenedSafeTileCount() {
+        return this.openedSafeTileCount;
+    }
+
+    public int getClosedSafeTileCount() {
+        return this.tiles.length - this.bombCount - this.openedSafeTileCount;
+    }
+
+    public int getFlagCount() {
+        return this.flagCount;
+    }
+
+    // Number of bombs not yet accounted for by a flag, as shown by the mine counter
+    // in the UI. Uses the configured number of bombs until the layout is generated
+    public int getMinesLeft() {
+        return (this.isBombLayoutGenerated ? this.bombCount : this.numBombs) - this.flagCount;
+    }
+
     // Returns a text representation of the board (for debugging purposes)
     @Override
     public String toString() {
         String boardString = "";
-        for (Tile[] row : board) {
-            for (Tile tile : row) {
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                Tile tile = this.getTile(x, y);
                 if (tile.isOpen() && !tile.isBomb()) {
                     boardString += String.valueOf(tile.getBombsAround()) + " ";
                     ;
@@ -0,0 +1,62 @@
+package minesweeper;
+
+// Dimensions and number of bombs of a board, with the presets offered on the
+// start screen
+public class BoardConfig {
+    public static final BoardConfig EASY = new BoardConfig(9, 9, 10);
+    public static final BoardConfig MEDIUM = new BoardConfig(16, 16, 40);
+    public static final BoardConfig HARD = new BoardConfig(30, 16, 99);
+
+    private final int width;
+    private final int height;
+    private final int numBombs;
+
+    public BoardConfig(int width, int height, int numBombs) {
+        Board.validate(width, height, numBombs);
+
+        this.width = width;
+        this.height = height;
+        this.numBombs = numBombs;
+    }
+
+    // Parses a preset name (easy, medium or hard) or a custom config on the format
+    // "30x16x99" (width x height x bombs)
+    public static BoardConfig parse(String config) {
+        switch (config.toLowerCase()) {
+            case "easy":
+                return EASY;
+            case "medium":
+                return MEDIUM;
+            case "hard":
+                return HARD;
+            default:
+                String[] values = config.split("x");
+                if (values.length != 3) {
+                    throw new IllegalArgumentException("Board config must be a preset or on the format WxHxB");
+                }
+                return new BoardConfig(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                        Integer.parseInt(values[2]));
+        }
+    }
+
+    public Board createBoard() {
+        return new Board(this.width, this.height, this.numBombs);
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getNumBombs() {
+        return this.numBombs;
+    }
+
+    @Override
+    public String toString() {
+        return this.width + "x" + this.height + "x" + this.numBombs;
+    }
+}
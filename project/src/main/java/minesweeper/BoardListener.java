@@ -0,0 +1,13 @@
+package minesweeper;
+
+// Listens for changes to a Board. Tiles are reported when their bomb, open or
+// flag state or their number changes, except for the hidden bombs and numbers
+// placed when the bomb layout is generated
+public interface BoardListener {
+    void tileChanged(int x, int y);
+
+    // Called once the game is won or lost, after the tiles changed by it have been
+    // reported
+    default void gameCompleted() {
+    }
+}
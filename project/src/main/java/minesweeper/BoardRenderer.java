@@ -0,0 +1,268 @@
+package minesweeper;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+// Paints a board (a Board or a ChunkedBoard) onto a single Canvas. The canvas covers a viewport of at most
+// MAX_VIEWPORT_WIDTH x MAX_VIEWPORT_HEIGHT pixels that can be scrolled around the
+// board, and only the tiles inside it are painted, so the cost of a frame depends
+// on the size of the window rather than the size of the board. After the first
+// paint, the renderer listens to the board and repaints only the tiles that change.
+//
+// The viewport can be zoomed out down to one pixel per tile. Below
+// MIN_DETAIL_TILE_SIZE pixels per tile, numbers and flags can't be made out, so
+// the visible tiles are drawn as an overview image with one pixel per tile,
+// scaled up to the tile size
+public class BoardRenderer implements BoardListener {
+    // Largest part of the board shown at once (in pixels)
+    static final int MAX_VIEWPORT_WIDTH = 1200;
+    static final int MAX_VIEWPORT_HEIGHT = 750;
+
+    // Range of the tile size while zooming, as a factor of the default tile size
+    // for the largest tiles and in pixels for the smallest
+    private static final double MAX_ZOOM = 4;
+    private static final double MIN_TILE_SIZE = 1;
+    // Smallest tile size drawn with borders and sprites (in pixels)
+    static final double MIN_DETAIL_TILE_SIZE = 8;
+
+    private static final int BORDER_WIDTH = 2;
+    private static final Color BORDER_COLOR = Color.GREY;
+    private static final Color CLOSED_COLOR = Color.LIGHTGRAY;
+    private static final Color OPEN_COLOR = Color.WHITE;
+    private static final Color BOMB_COLOR = Color.web("#ffa6a6");
+    private static final Color NUMBER_COLOR = Color.web("#c8d4f0");
+    private static final Color FLAG_COLOR = Color.web("#e05050");
+
+    // Default tile size and the current one, which changes when zooming (in pixels)
+    private final int defaultTileSize;
+    private double tileSize;
+    private final Canvas canvas;
+    private final SpriteCache sprites;
+    private GameBoard board;
+
+    // Overview image with one pixel per visible tile, and the pixels it is filled
+    // from. Both are reused between frames and only grow
+    private WritableImage overview;
+    private int[] overviewPixels = new int[0];
+
+    // Position of the top left corner of the viewport on the board (in pixels)
+    private double scrollX;
+    private double scrollY;
+
+    public BoardRenderer(int tileSize) {
+        this.defaultTileSize = tileSize;
+        this.tileSize = tileSize;
+        this.canvas = new Canvas();
+        this.sprites = SpriteCache.getInstance();
+    }
+
+    public Canvas getCanvas() {
+        return this.canvas;
+    }
+
+    // Shows a new board at the default zoom, sizing the viewport to the board or to
+    // the maximum viewport size, whichever is smaller
+    public void setBoard(GameBoard board) {
+        if (this.board != null) {
+            this.board.removeListener(this);
+        }
+        board.addListener(this);
+
+        this.board = board;
+        this.tileSize = this.defaultTileSize;
+        this.scrollX = 0;
+        this.scrollY = 0;
+        this.canvas.setWidth(Math.min((double) board.getWidth() * this.tileSize, MAX_VIEWPORT_WIDTH));
+        this.canvas.setHeight(Math.min((double) board.getHeight() * this.tileSize, MAX_VIEWPORT_HEIGHT));
+    }
+
+    public double getViewportWidth() {
+        return this.canvas.getWidth();
+    }
+
+    public double getViewportHeight() {
+        return this.canvas.getHeight();
+    }
+
+    // Moves the viewport, keeping it inside the board
+    public void scrollBy(double deltaX, double deltaY) {
+        this.scrollTo(this.scrollX + deltaX, this.scrollY + deltaY);
+    }
+
+    // Moves the viewport so the given tile is in the middle of it
+    public void centerOn(int x, int y) {
+        this.scrollTo((x + 0.5) * this.tileSize - this.canvas.getWidth() / 2,
+                (y + 0.5) * this.tileSize - this.canvas.getHeight() / 2);
+    }
+
+    // Scales the tiles by the given factor, keeping the point of the board under
+    // the given canvas position in place
+    public void zoomBy(double factor, double canvasX, double canvasY) {
+        double tileSize = Math.max(MIN_TILE_SIZE, Math.min(this.tileSize * factor, this.defaultTileSize * MAX_ZOOM));
+        double boardX = (this.scrollX + canvasX) / this.tileSize;
+        double boardY = (this.scrollY + canvasY) / this.tileSize;
+
+        this.tileSize = tileSize;
+        this.scrollTo(boardX * tileSize - canvasX, boardY * tileSize - canvasY);
+    }
+
+    public double getTileSize() {
+        return this.tileSize;
+    }
+
+    // The viewport stays inside the board, or at its top left corner when the whole
+    // board fits inside it
+    private void scrollTo(double scrollX, double scrollY) {
+        double maxScrollX = this.board.getWidth() * this.tileSize - this.canvas.getWidth();
+        double maxScrollY = this.board.getHeight() * this.tileSize - this.canvas.getHeight();
+        this.scrollX = Math.max(0, Math.min(scrollX, maxScrollX));
+        this.scrollY = Math.max(0, Math.min(scrollY, maxScrollY));
+        this.paint();
+    }
+
+    // Maps a horizontal position on the canvas to the column of the tile under it,
+    // or -1 if there is no tile there
+    public int tileXAt(double canvasX) {
+        return this.tileAt(canvasX + this.scrollX, this.board.getWidth());
+    }
+
+    // Maps a vertical position on the canvas to the row of the tile under it, or -1
+    // if there is no tile there
+    public int tileYAt(double canvasY) {
+        return this.tileAt(canvasY + this.scrollY, this.board.getHeight());
+    }
+
+    private int tileAt(double boardPosition, int numTiles) {
+        if (boardPosition < 0) {
+            return -1;
+        }
+
+        int tile = (int) (boardPosition / this.tileSize);
+        return tile < numTiles ? tile : -1;
+    }
+
+    private boolean isOverview() {
+        return this.tileSize < MIN_DETAIL_TILE_SIZE;
+    }
+
+    // Paints every tile that is at least partly inside the viewport
+    public void paint() {
+        int firstX = (int) (this.scrollX / this.tileSize);
+        int firstY = (int) (this.scrollY / this.tileSize);
+        int lastX = Math.min((int) ((this.scrollX + this.canvas.getWidth() - 1) / this.tileSize),
+                this.board.getWidth() - 1);
+        int lastY = Math.min((int) ((this.scrollY + this.canvas.getHeight() - 1) / this.tileSize),
+                this.board.getHeight() - 1);
+
+        GraphicsContext graphics = this.canvas.getGraphicsContext2D();
+        // Zoomed out far enough, the board no longer covers the canvas
+        graphics.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+
+        if (this.isOverview()) {
+            this.paintOverview(graphics, firstX, firstY, lastX, lastY);
+            return;
+        }
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                this.paintTile(graphics, x, y);
+            }
+        }
+    }
+
+    // Fills the overview image with one pixel per tile and draws it scaled to the
+    // tile size. Image smoothing is turned off so tiles keep sharp edges
+    private void paintOverview(GraphicsContext graphics, int firstX, int firstY, int lastX, int lastY) {
+        int width = lastX - firstX + 1;
+        int height = lastY - firstY + 1;
+        if (this.overview == null || this.overview.getWidth() < width || this.overview.getHeight() < height) {
+            this.overview = new WritableImage(width, height);
+        }
+        if (this.overviewPixels.length < width * height) {
+            this.overviewPixels = new int[width * height];
+        }
+
+        int i = 0;
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                this.overviewPixels[i++] = toArgb(this.overviewColor(this.board.getTile(x, y)));
+            }
+        }
+        this.overview.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(),
+                this.overviewPixels, 0, width);
+
+        graphics.setImageSmoothing(false);
+        graphics.drawImage(this.overview, 0, 0, width, height, firstX * this.tileSize - this.scrollX,
+                firstY * this.tileSize - this.scrollY, width * this.tileSize, height * this.tileSize);
+    }
+
+    private Color overviewColor(Tile tile) {
+        if (tile.isOpen()) {
+            if (tile.isBomb()) {
+                return BOMB_COLOR;
+            }
+            return tile.getBombsAround() > 0 ? NUMBER_COLOR : OPEN_COLOR;
+        }
+        return tile.isFlagged() ? FLAG_COLOR : CLOSED_COLOR;
+    }
+
+    private static int toArgb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24 | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
+    }
+
+    // Repaints a changed tile if it is inside the viewport
+    @Override
+    public void tileChanged(int x, int y) {
+        double tileX = x * this.tileSize - this.scrollX;
+        double tileY = y * this.tileSize - this.scrollY;
+
+        if (tileX > -this.tileSize && tileY > -this.tileSize && tileX < this.canvas.getWidth()
+                && tileY < this.canvas.getHeight()) {
+            GraphicsContext graphics = this.canvas.getGraphicsContext2D();
+            if (this.isOverview()) {
+                graphics.setFill(this.overviewColor(this.board.getTile(x, y)));
+                graphics.fillRect(tileX, tileY, this.tileSize, this.tileSize);
+            } else {
+                this.paintTile(graphics, x, y);
+            }
+        }
+    }
+
+    private void paintTile(GraphicsContext graphics, int x, int y) {
+        Tile tile = this.board.getTile(x, y);
+        double tileX = x * this.tileSize - this.scrollX;
+        double tileY = y * this.tileSize - this.scrollY;
+        // Borders shrink with tiles smaller than the default size
+        double border = this.tileSize < this.defaultTileSize ? BORDER_WIDTH / 2.0 : BORDER_WIDTH;
+
+        Color color = CLOSED_COLOR;
+        int sprite = -1;
+
+        if (tile.isOpen()) {
+            color = OPEN_COLOR;
+
+            if (tile.isBomb()) {
+                sprite = SpriteCache.BOMB;
+                color = BOMB_COLOR;
+            } else if (tile.getBombsAround() > 0) {
+                sprite = SpriteCache.numberSprite(tile.getBombsAround());
+            }
+        } else if (tile.isFlagged()) {
+            sprite = SpriteCache.FLAG;
+        }
+
+        graphics.setFill(BORDER_COLOR);
+        graphics.fillRect(tileX, tileY, this.tileSize, this.tileSize);
+        graphics.setFill(color);
+        graphics.fillRect(tileX + border, tileY + border, this.tileSize - 2 * border, this.tileSize - 2 * border);
+
+        // If a sprite is specified, draw it on top of the tile
+        if (sprite >= 0) {
+            this.sprites.drawSprite(graphics, sprite, tileX + this.tileSize * 0.2, tileY + this.tileSize * 0.2,
+                    this.tileSize * 0.6, this.tileSize * 0.6);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package minesweeper;
+
+// Tiles of a chunk of a ChunkedBoard in the same packed format as Board, indexed
+// by (y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE
+class Chunk {
+    final byte[] tiles = new byte[ChunkedBoard.CHUNK_TILES];
+    boolean numbered;
+
+    // Set when tiles are opened or flagged, which can't be generated again from
+    // the seed, so the chunk has to be paged out when it is evicted
+    boolean dirty;
+    // Set once the bombs are shown at the end of the game. Not kept in the page
+    // file, as the bombs are shown again when the chunk is read back
+    boolean revealed;
+}
@@ -0,0 +1,205 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Keeps the most recently used chunks of a ChunkedBoard in memory, up to a fixed
+// number. When a chunk is evicted, it is written to a page file if the player has
+// opened or flagged tiles in it, and dropped otherwise, since such a chunk is
+// generated again the same way from the seed. Paged out chunks are read back when
+// they are used again.
+//
+// Board operations can't throw IOException, so failures of the page file are
+// thrown as UncheckedIOException
+public class ChunkCache implements Closeable {
+    // Chunks kept in memory unless told otherwise, about 4 MB
+    public static final int DEFAULT_CAPACITY = 4096;
+    // Numbering a chunk uses the 8 chunks around it, which must not evict the chunk
+    // being numbered
+    static final int MIN_CAPACITY = 16;
+
+    private final int capacity;
+    private final Map<Long, Chunk> chunks;
+    // Page file, created in the temporary directory on the first eviction that
+    // needs it
+    private File pageFilePath;
+    private ChunkPageFile pageFile;
+
+    // Last chunk looked up, as most lookups in a row hit the same chunk. Such
+    // lookups skip the map, so the chunk is cleared here if it is evicted
+    private long lastKey;
+    private Chunk lastChunk;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long pageReads;
+    private long pageWrites;
+
+    public ChunkCache(int capacity) {
+        if (capacity < MIN_CAPACITY) {
+            throw new IllegalArgumentException("Chunk cache must hold at least " + MIN_CAPACITY + " chunks");
+        }
+        this.capacity = capacity;
+
+        // Iterates in access order, so the eldest entry is the least recently used
+        this.chunks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (this.size() <= ChunkCache.this.capacity) {
+                    return false;
+                }
+                ChunkCache.this.evict(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    // Returns a chunk from memory or the page file, or null if it has to be
+    // generated
+    Chunk get(long key) {
+        if (this.lastChunk != null && this.lastKey == key) {
+            this.hits++;
+            return this.lastChunk;
+        }
+
+        Chunk chunk = this.chunks.get(key);
+        if (chunk != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+            chunk = this.readPage(key);
+            if (chunk != null) {
+                this.chunks.put(key, chunk);
+            }
+        }
+
+        if (chunk != null) {
+            this.lastKey = key;
+            this.lastChunk = chunk;
+        }
+        return chunk;
+    }
+
+    // Returns a chunk in memory without counting a lookup or changing its place in
+    // the eviction order
+    Chunk peek(long key) {
+        return this.chunks.get(key);
+    }
+
+    // Adds a newly generated chunk, which may evict the least recently used one
+    void put(long key, Chunk chunk) {
+        this.chunks.put(key, chunk);
+        this.lastKey = key;
+        this.lastChunk = chunk;
+    }
+
+    // Keys of the chunks in memory, copied so the chunks can be changed (and
+    // listeners told) while going through them
+    long[] keysInMemory() {
+        long[] keys = new long[this.chunks.size()];
+        int i = 0;
+        for (long key : this.chunks.keySet()) {
+            keys[i++] = key;
+        }
+        return keys;
+    }
+
+    // Drops every chunk, in memory and in the page file
+    void clear() {
+        this.chunks.clear();
+        this.lastChunk = null;
+        if (this.pageFile != null) {
+            try {
+                this.pageFile.clear();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void evict(long key, Chunk chunk) {
+        this.evictions++;
+        if (chunk == this.lastChunk) {
+            this.lastChunk = null;
+        }
+        if (!chunk.dirty) {
+            return;
+        }
+
+        try {
+            if (this.pageFile == null) {
+                this.pageFilePath = File.createTempFile("minesweeper-chunks", ".pages");
+                this.pageFilePath.deleteOnExit();
+                this.pageFile = new ChunkPageFile(this.pageFilePath);
+            }
+            this.pageFile.write(key, chunk);
+            this.pageWrites++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.dirty = false;
+    }
+
+    private Chunk readPage(long key) {
+        if (this.pageFile == null) {
+            return null;
+        }
+
+        try {
+            Chunk chunk = this.pageFile.read(key);
+            if (chunk != null) {
+                this.pageReads++;
+            }
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Closes and deletes the page file
+    @Override
+    public void close() throws IOException {
+        if (this.pageFile != null) {
+            this.pageFile.close();
+            this.pageFile = null;
+            this.pageFilePath.delete();
+        }
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    // Number of chunks in memory
+    public int size() {
+        return this.chunks.size();
+    }
+
+    // Lookups answered from memory
+    public long getHits() {
+        return this.hits;
+    }
+
+    // Lookups of chunks not in memory, which were read from the page file or
+    // generated
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    public long getPageReads() {
+        return this.pageReads;
+    }
+
+    public long getPageWrites() {
+        return this.pageWrites;
+    }
+}
@@ -0,0 +1,210 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Stores evicted chunks in fixed size slots of a page file: one byte telling
+// whether the chunk is numbered, followed by its packed tiles. A chunk keeps its
+// slot once it has one, so a chunk paged out again overwrites its old copy, and
+// the file grows with the number of distinct chunks paged out.
+//
+// The slot of each chunk is found through an open-addressing hash table kept in
+// an index file next to the page file, so the memory used does not grow with the
+// number of chunks paged out. Each entry is the chunk key followed by its slot
+// number plus one, with 0 marking an empty entry. Most lookups are for chunks
+// that were never paged out, so a fixed size bitmap of hashed keys is kept in
+// memory as well. A key whose bits are not both set was never written, and is
+// answered without reading the index.
+//
+// Chunks are paged through this format rather than a FileHandler. A FileHandler
+// reads and writes a whole Board to a file of its own, so paging with one would
+// mean a file per chunk, each with a board header and a full Board on every read.
+// The slots keep the packed tile bytes that Board and the file handlers use, and
+// can be read and written in place
+class ChunkPageFile implements Closeable {
+    private static final int SLOT_SIZE = 1 + ChunkedBoard.CHUNK_TILES;
+    private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    // Entries in the index table before the first time it grows. The table doubles
+    // whenever it becomes half full
+    private static final long MIN_INDEX_CAPACITY = 1024;
+    // Entries read at a time while moving the index table to a larger one
+    private static final int REHASH_BLOCK_ENTRIES = 4096;
+    // Bits in the bitmap of written keys (1 MB)
+    private static final int WRITTEN_BITS = 1 << 23;
+
+    private final FileChannel channel;
+    private final FileChannel indexChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE);
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+    private final long[] written = new long[WRITTEN_BITS / Long.SIZE];
+
+    // A grown table is written after the old one, so the index file is at most
+    // twice the size of its current table
+    private long indexStart;
+    private long indexCapacity;
+    private int numSlots;
+
+    ChunkPageFile(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        File indexFile = new File(file.getPath() + ".index");
+        indexFile.deleteOnExit();
+        this.indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        this.createIndex(0, MIN_INDEX_CAPACITY);
+    }
+
+    void write(long key, Chunk chunk) throws IOException {
+        long hash = hash(key);
+        this.setWritten((int) hash);
+        this.setWritten((int) (hash >>> 32));
+
+        long position = this.findEntry(key);
+        int slot = this.readSlot();
+        if (slot < 0) {
+            slot = this.numSlots++;
+            this.writeEntry(position, key, slot);
+            if ((long) this.numSlots * 2 > this.indexCapacity) {
+                this.growIndex();
+            }
+        }
+
+        this.buffer.clear();
+        this.buffer.put((byte) (chunk.numbered ? 1 : 0));
+        this.buffer.put(chunk.tiles);
+        this.buffer.flip();
+        long slotPosition = (long) slot * SLOT_SIZE;
+        while (this.buffer.hasRemaining()) {
+            slotPosition += this.channel.write(this.buffer, slotPosition);
+        }
+    }
+
+    // Returns the chunk stored under the key, or null if it was never paged out
+    Chunk read(long key) throws IOException {
+        long hash = hash(key);
+        if (!this.isWritten((int) hash) || !this.isWritten((int) (hash >>> 32))) {
+            return null;
+        }
+
+        this.findEntry(key);
+        int slot = this.readSlot();
+        if (slot < 0) {
+            return null;
+        }
+
+        this.buffer.clear();
+        readFully(this.channel, this.buffer, (long) slot * SLOT_SIZE);
+        this.buffer.flip();
+
+        Chunk chunk = new Chunk();
+        chunk.numbered = this.buffer.get() != 0;
+        this.buffer.get(chunk.tiles);
+        return chunk;
+    }
+
+    // Drops every stored chunk
+    void clear() throws IOException {
+        Arrays.fill(this.written, 0);
+        this.numSlots = 0;
+        this.channel.truncate(0);
+        this.indexChannel.truncate(0);
+        this.createIndex(0, MIN_INDEX_CAPACITY);
+    }
+
+    // Probes the index table for the key, and returns the position of its entry or
+    // of the empty entry where it would go. The entry is left in the entry buffer
+    private long findEntry(long key) throws IOException {
+        long mask = this.indexCapacity - 1;
+        for (long i = hash(key) & mask; ; i = (i + 1) & mask) {
+            long position = this.indexStart + i * ENTRY_SIZE;
+            this.entry.clear();
+            readFully(this.indexChannel, this.entry, position);
+            if (this.readSlot() < 0 || this.entry.getLong(0) == key) {
+                return position;
+            }
+        }
+    }
+
+    // Slot of the entry in the entry buffer, or -1 if the entry is empty
+    private int readSlot() {
+        return this.entry.getInt(Long.BYTES) - 1;
+    }
+
+    private void writeEntry(long position, long key, int slot) throws IOException {
+        this.entry.clear();
+        this.entry.putLong(key).putInt(slot + 1).flip();
+        while (this.entry.hasRemaining()) {
+            position += this.indexChannel.write(this.entry, position);
+        }
+    }
+
+    // Starts an empty table at the given position. Writing its last byte extends
+    // the file, and the unwritten bytes before it read as zeros
+    private void createIndex(long start, long capacity) throws IOException {
+        this.indexStart = start;
+        this.indexCapacity = capacity;
+        this.indexChannel.write(ByteBuffer.allocate(1), start + capacity * ENTRY_SIZE - 1);
+    }
+
+    // Moves the entries to a table twice the size, placed after the current one
+    private void growIndex() throws IOException {
+        long oldStart = this.indexStart;
+        long oldCapacity = this.indexCapacity;
+        this.createIndex(oldStart + oldCapacity * ENTRY_SIZE, oldCapacity * 2);
+
+        int blockEntries = (int) Math.min(REHASH_BLOCK_ENTRIES, oldCapacity);
+        ByteBuffer block = ByteBuffer.allocate(blockEntries * ENTRY_SIZE);
+        for (long i = 0; i < oldCapacity; i += blockEntries) {
+            block.clear();
+            readFully(this.indexChannel, block, oldStart + i * ENTRY_SIZE);
+            for (int offset = 0; offset < block.capacity(); offset += ENTRY_SIZE) {
+                int slot = block.getInt(offset + Long.BYTES) - 1;
+                if (slot >= 0) {
+                    long key = block.getLong(offset);
+                    this.writeEntry(this.findEntry(key), key, slot);
+                }
+            }
+        }
+    }
+
+    private void setWritten(int bit) {
+        bit &= WRITTEN_BITS - 1;
+        this.written[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean isWritten(int bit) {
+        bit &= WRITTEN_BITS - 1;
+        return (this.written[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    private static long hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Page file is truncated");
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.channel.close();
+        } finally {
+            this.indexChannel.close();
+        }
+    }
+}
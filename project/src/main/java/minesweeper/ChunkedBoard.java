@@ -0,0 +1,550 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// A board for sizes far beyond what fits in memory, up to Integer.MAX_VALUE tiles
+// in each direction. The board is split into CHUNK_SIZE x CHUNK_SIZE chunks that
+// are only created once they are looked at, opened or flagged. A ChunkCache keeps
+// the recently used chunks in memory and pages out the ones the player changed,
+// so memory stays bounded however much of the board is explored.
+//
+// The bombs of a chunk are derived from the seed of the board and the position of
+// the chunk alone, so any chunk can be generated again the same way. Bombs are
+// placed when a chunk is created, and the numbers when the first tile in it is
+// opened, which requires the bombs of the chunks around it. The game starts by
+// opening the start tile in the middle of the board, which is kept free of bombs
+// along with the tiles around it
+public class ChunkedBoard implements GameBoard, Closeable {
+    static final int CHUNK_SHIFT = 5;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    static final int CHUNK_TILES = CHUNK_SIZE * CHUNK_SIZE;
+
+    // Most tiles opened by a single call. On very sparse boards, blank areas can
+    // stretch across the whole board, and the cascade pauses here instead of
+    // generating every chunk at once. The rest of its queue is kept, and
+    // continueCascade opens it in later calls
+    static final int MAX_CASCADE_TILES = 1 << 22;
+
+    private final int width;
+    private final int height;
+    private final double density;
+    private final int startX;
+    private final int startY;
+    private long seed;
+    private long numBombs;
+
+    private final ChunkCache chunks;
+    // Open blank tiles whose neighbours are still to be opened, as a ring buffer of
+    // packed positions that is kept between calls while a cascade is paused
+    private long[] cascadeQueue = new long[1024];
+    private int cascadeHead;
+    private int cascadeTail;
+    private int maxCascadeTiles = MAX_CASCADE_TILES;
+    // Tile offsets that may hold a bomb, reused while placing the bombs of a chunk
+    private final int[] legalOffsets = new int[CHUNK_TILES];
+
+    private long openedSafeTileCount;
+    private long flagCount;
+    private boolean hasWon;
+    private boolean gameOver;
+    private List<BoardListener> listeners = new ArrayList<>();
+
+    public ChunkedBoard(int width, int height, double density, long seed) {
+        this(width, height, density, seed, ChunkCache.DEFAULT_CAPACITY);
+    }
+
+    // Keeps at most the given number of chunks in memory
+    public ChunkedBoard(int width, int height, double density, long seed, int maxChunksInMemory) {
+        if (width < 4 || height < 4) {
+            throw new IllegalArgumentException("Board dimensions must be at least 4x4");
+        }
+        if (!(density > 0 && density < 1)) {
+            throw new IllegalArgumentException("Bomb density must be between 0 and 1");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.density = density;
+        this.startX = width / 2;
+        this.startY = height / 2;
+        this.chunks = new ChunkCache(maxChunksInMemory);
+        this.reset(seed);
+    }
+
+    // Clears the board for a new game with a new random layout
+    @Override
+    public void reset() {
+        this.reset(new SplittableRandom().nextLong());
+    }
+
+    // Clears the board for a new game with the layout given by the seed. Listeners
+    // stay registered but are not told about the cleared tiles
+    public void reset(long seed) {
+        this.seed = seed;
+        this.chunks.clear();
+        this.openedSafeTileCount = 0;
+        this.flagCount = 0;
+        this.hasWon = false;
+        this.gameOver = false;
+        this.cascadeHead = 0;
+        this.cascadeTail = 0;
+        this.numBombs = this.countBombs();
+    }
+
+    // Bombs in a chunk: the bomb density times the tiles of the chunk inside the
+    // board, limited to the tiles outside the start area
+    private int bombsInChunk(int chunkX, int chunkY) {
+        long minX = (long) chunkX << CHUNK_SHIFT;
+        long minY = (long) chunkY << CHUNK_SHIFT;
+        long maxX = Math.min(minX + CHUNK_SIZE, this.width);
+        long maxY = Math.min(minY + CHUNK_SIZE, this.height);
+        int inside = (int) ((maxX - minX) * (maxY - minY));
+
+        long startMinX = Math.max(minX, this.startX - 1);
+        long startMinY = Math.max(minY, this.startY - 1);
+        long startMaxX = Math.min(maxX, this.startX + 2);
+        long startMaxY = Math.min(maxY, this.startY + 2);
+        int start = (int) (Math.max(startMaxX - startMinX, 0) * Math.max(startMaxY - startMinY, 0));
+
+        return (int) Math.min(Math.round(this.density * inside), inside - start);
+    }
+
+    // Total number of bombs on the board. All full chunks have the same number of
+    // bombs, as do the partial chunks along the right and bottom edges, so only the
+    // chunks around the start area need to be counted one by one
+    private long countBombs() {
+        long fullColumns = this.width >> CHUNK_SHIFT;
+        long fullRows = this.height >> CHUNK_SHIFT;
+        boolean partialColumn = (this.width & CHUNK_MASK) != 0;
+        boolean partialRow = (this.height & CHUNK_MASK) != 0;
+        int lastChunkX = (int) fullColumns;
+        int lastChunkY = (int) fullRows;
+
+        long bombs = fullColumns * fullRows * this.bombsInFullChunk();
+        if (partialColumn) {
+            bombs += fullRows * Math.round(this.density * (this.width & CHUNK_MASK) * CHUNK_SIZE);
+        }
+        if (partialRow) {
+            bombs += fullColumns * Math.round(this.density * (this.height & CHUNK_MASK) * CHUNK_SIZE);
+        }
+        if (partialColumn && partialRow) {
+            bombs += Math.round(this.density * (this.width & CHUNK_MASK) * (this.height & CHUNK_MASK));
+        }
+
+        // Replaces the general count with the exact one for the chunks the start
+        // area overlaps
+        for (int chunkY = (this.startY - 1) >> CHUNK_SHIFT; chunkY <= (this.startY + 1) >> CHUNK_SHIFT; chunkY++) {
+            for (int chunkX = (this.startX - 1) >> CHUNK_SHIFT; chunkX <= (this.startX + 1) >> CHUNK_SHIFT; chunkX++) {
+                int width = chunkX == lastChunkX ? this.width & CHUNK_MASK : CHUNK_SIZE;
+                int height = chunkY == lastChunkY ? this.height & CHUNK_MASK : CHUNK_SIZE;
+                bombs += this.bombsInChunk(chunkX, chunkY) - Math.round(this.density * width * height);
+            }
+        }
+        return bombs;
+    }
+
+    private long bombsInFullChunk() {
+        return Math.round(this.density * CHUNK_TILES);
+    }
+
+    private static long chunkKey(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    // Returns a chunk with its bombs placed, creating it if needed. Chunks created
+    // or paged in after the game ended get their bombs shown here
+    private Chunk getChunk(int chunkX, int chunkY) {
+        long key = chunkKey(chunkX, chunkY);
+        Chunk chunk = this.chunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk();
+            this.placeBombs(chunk, chunkX, chunkY);
+            this.chunks.put(key, chunk);
+        }
+        if (!chunk.revealed && !this.isGameActive()) {
+            for (int offset = 0; offset < CHUNK_TILES; offset++) {
+                this.revealTile(chunk.tiles, offset);
+            }
+            chunk.revealed = true;
+        }
+        return chunk;
+    }
+
+    // Returns a chunk with its bombs and numbers in place
+    private Chunk getNumberedChunk(int chunkX, int chunkY) {
+        Chunk chunk = this.getChunk(chunkX, chunkY);
+        if (!chunk.numbered) {
+            this.calculateNumbers(chunk, chunkX, chunkY);
+        }
+        return chunk;
+    }
+
+    // Picks the bombs of a chunk among its legal tiles with a partial shuffle,
+    // using a random generator seeded by the board seed and the chunk position
+    private void placeBombs(Chunk chunk, int chunkX, int chunkY) {
+        int minX = chunkX << CHUNK_SHIFT;
+        int minY = chunkY << CHUNK_SHIFT;
+        int numLegal = 0;
+        for (int offset = 0; offset < CHUNK_TILES; offset++) {
+            long x = minX + (offset & CHUNK_MASK);
+            long y = minY + (offset >> CHUNK_SHIFT);
+            boolean inStartArea = Math.abs(x - this.startX) <= 1 && Math.abs(y - this.startY) <= 1;
+            if (x < this.width && y < this.height && !inStartArea) {
+                this.legalOffsets[numLegal++] = offset;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(
+                this.seed ^ chunkX * 0x9E3779B97F4A7C15L ^ chunkY * 0xC2B2AE3D27D4EB4FL);
+        int numBombs = this.bombsInChunk(chunkX, chunkY);
+        for (int i = 0; i < numBombs; i++) {
+            int pick = i + random.nextInt(numLegal - i);
+            int offset = this.legalOffsets[pick];
+            this.legalOffsets[pick] = this.legalOffsets[i];
+            this.legalOffsets[i] = offset;
+            chunk.tiles[offset] = Tile.BOMB;
+        }
+    }
+
+    // Sets the number of every tile in a chunk from the bombs in it and along the
+    // edges of the chunks around it
+    private void calculateNumbers(Chunk chunk, int chunkX, int chunkY) {
+        int minX = chunkX << CHUNK_SHIFT;
+        int minY = chunkY << CHUNK_SHIFT;
+
+        // Bombs of the chunk with a border of one tile from its neighbours
+        int paddedSize = CHUNK_SIZE + 2;
+        byte[] bombs = new byte[paddedSize * paddedSize];
+        for (int j = 0; j < paddedSize; j++) {
+            long y = (long) minY + j - 1;
+            if (y < 0 || y >= this.height) {
+                continue;
+            }
+            for (int i = 0; i < paddedSize; i++) {
+                long x = (long) minX + i - 1;
+                if (x < 0 || x >= this.width) {
+                    continue;
+                }
+                Chunk source = (i > 0 && i <= CHUNK_SIZE && j > 0 && j <= CHUNK_SIZE) ? chunk
+                        : this.getChunk((int) (x >> CHUNK_SHIFT), (int) (y >> CHUNK_SHIFT));
+                bombs[j * paddedSize + i] = (byte) (source.tiles[tileOffset((int) x, (int) y)] & Tile.BOMB);
+            }
+        }
+
+        for (int j = 0; j < CHUNK_SIZE; j++) {
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                int around = 0;
+                for (int dy = 0; dy < 3; dy++) {
+                    int row = (j + dy) * paddedSize + i;
+                    around += bombs[row] + bombs[row + 1] + bombs[row + 2];
+                }
+                int offset = (j << CHUNK_SHIFT) + i;
+                chunk.tiles[offset] = Tile.withBombsAround(chunk.tiles[offset], around);
+            }
+        }
+        chunk.numbered = true;
+    }
+
+    private static int tileOffset(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    private void checkBounds(int x, int y, String message) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    @Override
+    public Tile getTile(int x, int y) {
+        this.checkBounds(x, y, "Can't get tile outside of board");
+        return new Tile(this.getChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT).tiles[tileOffset(x, y)]);
+    }
+
+    @Override
+    public void openTile(int x, int y) {
+        this.checkBounds(x, y, "Can't open tile outside of board");
+        if (!this.isGameActive()) {
+            return;
+        }
+
+        Chunk chunk = this.getNumberedChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        int offset = tileOffset(x, y);
+        if ((chunk.tiles[offset] & (Tile.OPEN | Tile.FLAGGED)) != 0) {
+            return;
+        }
+
+        chunk.tiles[offset] |= Tile.OPEN;
+        chunk.dirty = true;
+        this.fireTileChanged(x, y);
+
+        if ((chunk.tiles[offset] & Tile.BOMB) != 0) {
+            this.gameOver = true;
+            this.handleGameCompleted();
+            return;
+        }
+
+        this.openedSafeTileCount++;
+        if (Tile.bombsAround(chunk.tiles[offset]) == 0) {
+            this.pushCascadeTile(x, y);
+            this.runCascade(this.maxCascadeTiles);
+        }
+
+        if (this.checkVictory()) {
+            this.hasWon = true;
+            this.handleGameCompleted();
+        }
+    }
+
+    // Whether a cascade paused at the limit has tiles left to open
+    public boolean isCascadePending() {
+        return this.cascadeHead != this.cascadeTail;
+    }
+
+    // Opens up to the given number of tiles more of a paused cascade, so that a
+    // caller such as the UI can finish it over several frames
+    public void continueCascade(int maxTiles) {
+        if (!this.isGameActive() || !this.isCascadePending()) {
+            return;
+        }
+
+        this.runCascade(Math.min(maxTiles, this.maxCascadeTiles));
+        if (this.checkVictory()) {
+            this.hasWon = true;
+            this.handleGameCompleted();
+        }
+    }
+
+    private void pushCascadeTile(int x, int y) {
+        if (this.cascadeTail - this.cascadeHead == this.cascadeQueue.length) {
+            this.growCascadeQueue(this.cascadeHead, this.cascadeTail);
+            this.cascadeTail -= this.cascadeHead;
+            this.cascadeHead = 0;
+        }
+        this.cascadeQueue[this.cascadeTail++ & (this.cascadeQueue.length - 1)] = ((long) x << 32) | y;
+    }
+
+    // Opens the blank area around the queued blank tiles breadth-first, like Board,
+    // with the tile positions packed into longs and chunks numbered as the
+    // cascade reaches them. Stops once the given number of tiles is opened, leaving
+    // the rest in the queue
+    private void runCascade(int maxTiles) {
+        long[] queue = this.cascadeQueue;
+        int mask = queue.length - 1;
+        int head = this.cascadeHead;
+        int tail = this.cascadeTail;
+        int opened = 0;
+
+        while (head != tail && opened < maxTiles) {
+            long position = queue[head++ & mask];
+            int x = (int) (position >>> 32);
+            int y = (int) position;
+
+            for (int nextY = Math.max(y - 1, 0); nextY <= Math.min(y + 1, this.height - 1); nextY++) {
+                for (int nextX = Math.max(x - 1, 0); nextX <= Math.min(x + 1, this.width - 1); nextX++) {
+                    Chunk chunk = this.getNumberedChunk(nextX >> CHUNK_SHIFT, nextY >> CHUNK_SHIFT);
+                    int offset = tileOffset(nextX, nextY);
+                    if ((chunk.tiles[offset] & (Tile.OPEN | Tile.FLAGGED)) != 0) {
+                        continue;
+                    }
+
+                    // Tiles are marked open when queued, so each tile is visited only once
+                    chunk.tiles[offset] |= Tile.OPEN;
+                    chunk.dirty = true;
+                    this.openedSafeTileCount++;
+                    opened++;
+                    this.fireTileChanged(nextX, nextY);
+
+                    if (Tile.bombsAround(chunk.tiles[offset]) == 0) {
+                        if (tail - head == queue.length) {
+                            queue = this.growCascadeQueue(head, tail);
+                            mask = queue.length - 1;
+                            tail -= head;
+                            head = 0;
+                        }
+                        queue[tail++ & mask] = ((long) nextX << 32) | nextY;
+                    }
+                }
+            }
+        }
+
+        this.cascadeHead = head;
+        this.cascadeTail = tail;
+    }
+
+    // Lowers the cascade limit, for tests
+    void setMaxCascadeTiles(int maxCascadeTiles) {
+        this.maxCascadeTiles = maxCascadeTiles;
+    }
+
+    private long[] growCascadeQueue(int head, int tail) {
+        long[] queue = this.cascadeQueue;
+        int mask = queue.length - 1;
+        long[] grown = new long[queue.length << 1];
+        for (int i = head; i != tail; i++) {
+            grown[i - head] = queue[i & mask];
+        }
+
+        this.cascadeQueue = grown;
+        return grown;
+    }
+
+    @Override
+    public void flagTile(int x, int y) {
+        this.checkBounds(x, y, "Can't flag tile outside of board");
+
+        Chunk chunk = this.getChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        int offset = tileOffset(x, y);
+        if ((chunk.tiles[offset] & Tile.OPEN) == 0) {
+            chunk.tiles[offset] ^= Tile.FLAGGED;
+            chunk.dirty = true;
+            this.flagCount += (chunk.tiles[offset] & Tile.FLAGGED) != 0 ? 1 : -1;
+            this.fireTileChanged(x, y);
+        }
+    }
+
+    // Shows the bombs of the chunks in memory, opened on a loss and flagged on a
+    // win. Other chunks get their bombs shown when they are next used. The shown
+    // bombs follow from the outcome of the game, so they don't make a chunk dirty
+    private void handleGameCompleted() {
+        this.cascadeHead = 0;
+        this.cascadeTail = 0;
+        if (this.hasWon) {
+            // Flagged tiles can't be opened, so a win leaves flags only on bombs
+            this.flagCount = this.numBombs;
+        }
+
+        for (long key : this.chunks.keysInMemory()) {
+            // Listeners may look at other chunks and evict this one
+            Chunk chunk = this.chunks.peek(key);
+            if (chunk == null) {
+                continue;
+            }
+
+            int minX = (int) (key >> 32) << CHUNK_SHIFT;
+            int minY = (int) key << CHUNK_SHIFT;
+            chunk.revealed = true;
+            for (int offset = 0; offset < CHUNK_TILES; offset++) {
+                if (this.revealTile(chunk.tiles, offset)) {
+                    this.fireTileChanged(minX + (offset & CHUNK_MASK), minY + (offset >> CHUNK_SHIFT));
+                }
+            }
+        }
+
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).gameCompleted();
+        }
+    }
+
+    // Shows a bomb once the game is over and returns whether the tile changed
+    private boolean revealTile(byte[] tiles, int offset) {
+        byte tile = tiles[offset];
+        if ((tile & Tile.BOMB) == 0) {
+            return false;
+        }
+        tiles[offset] |= this.gameOver ? Tile.OPEN : Tile.FLAGGED;
+        return tiles[offset] != tile;
+    }
+
+    @Override
+    public void addListener(BoardListener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(BoardListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void fireTileChanged(int x, int y) {
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).tileChanged(x, y);
+        }
+    }
+
+    @Override
+    public boolean checkVictory() {
+        return this.getClosedSafeTileCount() == 0;
+    }
+
+    @Override
+    public boolean isGameActive() {
+        return !this.hasWon && !this.gameOver;
+    }
+
+    public boolean hasWon() {
+        return this.hasWon;
+    }
+
+    public boolean isGameOver() {
+        return this.gameOver;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    public double getDensity() {
+        return this.density;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public int getStartX() {
+        return this.startX;
+    }
+
+    public int getStartY() {
+        return this.startY;
+    }
+
+    public long getNumBombs() {
+        return this.numBombs;
+    }
+
+    public long getOpenedSafeTileCount() {
+        return this.openedSafeTileCount;
+    }
+
+    public long getClosedSafeTileCount() {
+        return (long) this.width * this.height - this.numBombs - this.openedSafeTileCount;
+    }
+
+    public long getFlagCount() {
+        return this.flagCount;
+    }
+
+    // Limited to Integer.MAX_VALUE on the largest boards
+    @Override
+    public int getMinesLeft() {
+        return (int) Math.min(this.numBombs - this.flagCount, Integer.MAX_VALUE);
+    }
+
+    // Number of chunks in memory
+    public int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    public ChunkCache getChunkCache() {
+        return this.chunks;
+    }
+
+    // Deletes the page file of the chunks paged out so far
+    @Override
+    public void close() throws IOException {
+        this.chunks.close();
+    }
+}
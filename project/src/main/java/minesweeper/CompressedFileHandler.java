@@ -0,0 +1,90 @@
+package minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Saves boards in the binary format of BinaryFileHandler, compressed with a
+// SaveCodec. Compressed files start with a magic header and the id of their
+// codec. When reading, the format is detected from the start of the file, so
+// this handler also reads uncompressed binary and text save files
+public class CompressedFileHandler implements FileHandler {
+    static final byte[] MAGIC = { 'M', 'S', 'W', 'Z' };
+
+    // Size of the buffer used to write the binary format (in bytes)
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final SaveCodec codec;
+    // Codecs that can be read, by id
+    private final Map<Byte, SaveCodec> codecs = new HashMap<>();
+    private final FileHandler binaryFileHandler = new BinaryFileHandler();
+    private final FileHandler textFileHandler = new TextFileHandler();
+
+    // Creates a handler that writes GZIP compressed files
+    public CompressedFileHandler() {
+        this(new GzipCodec());
+    }
+
+    public CompressedFileHandler(SaveCodec codec) {
+        this.codec = codec;
+        this.addCodec(new GzipCodec());
+        this.addCodec(new RunLengthCodec());
+        this.addCodec(codec);
+    }
+
+    // Makes files compressed with a custom codec readable by this handler
+    public void addCodec(SaveCodec codec) {
+        this.codecs.put(codec.getId(), codec);
+    }
+
+    public Board readFromFile(File file) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            int read = in.readNBytes(magic, 0, magic.length);
+
+            if (read == magic.length && Arrays.equals(magic, MAGIC)) {
+                SaveCodec fileCodec = this.codecs.get((byte) in.read());
+                if (fileCodec == null) {
+                    throw new IOException("Save file is compressed with an unknown codec!");
+                }
+
+                try (InputStream decompressed = fileCodec.decompress(in)) {
+                    return BinaryFileHandler.readBoard(ByteBuffer.wrap(decompressed.readAllBytes()));
+                } catch (IllegalArgumentException | BufferUnderflowException e) {
+                    // File contains illegal values or is cut short
+                    throw new IOException("Invalid save file!");
+                }
+            }
+        }
+
+        // Uncompressed files are passed on to the handler for their format
+        if (Arrays.equals(magic, BinaryFileHandler.MAGIC)) {
+            return this.binaryFileHandler.readFromFile(file);
+        }
+        return this.textFileHandler.readFromFile(file);
+    }
+
+    public void writeToFile(Board board, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            out.write(MAGIC);
+            out.write(this.codec.getId());
+
+            try (OutputStream compressed = this.codec.compress(out)) {
+                BinaryFileHandler.writeBoard(board, Channels.newChannel(compressed),
+                        ByteBuffer.allocate(WRITE_BUFFER_SIZE));
+            }
+        }
+    }
+}
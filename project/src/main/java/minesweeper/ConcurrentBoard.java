@@ -0,0 +1,376 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+// A board that several players can play at once from different threads, for
+// cooperative games. Tiles are packed like in Board, and every change to a tile is
+// a compare-and-set on its byte, so no lock is held while playing. A tile is opened
+// or flagged by exactly one thread, which lets cascades of different players run
+// into each other: each tile is opened and counted once, by whichever cascade gets
+// there first, and the union of the cascades is the same as on a Board.
+//
+// The end of the game is a compare-and-set on the game state, so it is decided
+// exactly once, by the first opened bomb or by the thread that opens the last safe
+// tile. The bomb layout is generated by the first opened tile like in Board, under
+// a lock that is taken once per game. Listeners are called from the thread that
+// made the change, so they must be thread safe
+public class ConcurrentBoard implements GameBoard {
+    private static final VarHandle TILES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    // Values of the game state
+    private static final int ACTIVE = 0;
+    private static final int WON = 1;
+    private static final int LOST = 2;
+
+    // Tile states packed one byte per tile (see Tile) in a flat array indexed y *
+    // width + x. Only accessed through TILES
+    private final byte[] tiles;
+    private final int[] neighbourOffsets;
+    private static final int[] NEIGHBOUR_DX = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final int[] NEIGHBOUR_DY = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private final int width;
+    private final int height;
+    private final int numBombs;
+    private volatile boolean isBombLayoutGenerated;
+    private final AtomicInteger state = new AtomicInteger(ACTIVE);
+    private final AtomicInteger openedSafeTileCount = new AtomicInteger();
+    private final AtomicInteger flagCount = new AtomicInteger();
+    // Source of randomness for the bomb layout, only used under the layout lock
+    private RandomGenerator random = new SplittableRandom();
+    private final List<BoardListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ConcurrentBoard(int width, int height, int numBombs) {
+        Board.validate(width, height, numBombs);
+
+        this.width = width;
+        this.height = height;
+        this.numBombs = numBombs;
+        this.tiles = new byte[width * height];
+        this.neighbourOffsets = new int[] { -width - 1, -width, -width + 1, -1, 1, width - 1, width, width + 1 };
+    }
+
+    // Places the bombs like Board, so both give the same layout for the same seed and
+    // first opened tile. Flags placed before the first opened tile may be toggled
+    // meanwhile, so bombs and numbers are added to the tiles atomically
+    private synchronized void generateBombLayout(int firstX, int firstY) {
+        if (this.isBombLayoutGenerated) {
+            return;
+        }
+
+        int[] safeTiles = new int[9];
+        int numSafeTiles = Board.findSafeTiles(this.width, this.height, this.numBombs, firstX, firstY, safeTiles);
+
+        int numLegalTiles = this.tiles.length - numSafeTiles;
+        for (int j = numLegalTiles - this.numBombs; j < numLegalTiles; j++) {
+            int index = Board.legalTileIndex(this.random.nextInt(j + 1), safeTiles, numSafeTiles);
+            if ((this.getTileState(index) & Tile.BOMB) != 0) {
+                index = Board.legalTileIndex(j, safeTiles, numSafeTiles);
+            }
+
+            TILES.getAndBitwiseOr(this.tiles, index, (byte) Tile.BOMB);
+            this.addBombAround(index);
+        }
+        this.isBombLayoutGenerated = true;
+    }
+
+    // Adds a bomb to the numbers of the tiles around the bomb. A number is at most 8,
+    // so adding to the high nibble never carries into the bits below it
+    private void addBombAround(int index) {
+        int x = index % this.width;
+        int y = index / this.width;
+        for (int i = 0; i < 8; i++) {
+            int nextX = x + NEIGHBOUR_DX[i];
+            int nextY = y + NEIGHBOUR_DY[i];
+            if (nextX >= 0 && nextY >= 0 && nextX < this.width && nextY < this.height) {
+                TILES.getAndAdd(this.tiles, index + this.neighbourOffsets[i], (byte) (1 << Tile.BOMBS_AROUND_SHIFT));
+            }
+        }
+    }
+
+    private byte getTileState(int index) {
+        return (byte) TILES.getVolatile(this.tiles, index);
+    }
+
+    private int indexOf(int x, int y) {
+        return y * this.width + x;
+    }
+
+    private void checkBounds(int x, int y, String message) {
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    @Override
+    public Tile getTile(int x, int y) {
+        this.checkBounds(x, y, "Can't get tile outside of board");
+        return new Tile(this.getTileState(this.indexOf(x, y)));
+    }
+
+    @Override
+    public void openTile(int x, int y) {
+        this.checkBounds(x, y, "Can't open tile outside of board");
+
+        if (!this.isBombLayoutGenerated) {
+            this.generateBombLayout(x, y);
+        }
+
+        int index = this.indexOf(x, y);
+        if (!this.isGameActive() || !this.claimTile(index)) {
+            return;
+        }
+        this.fireTileChanged(index);
+
+        byte tile = this.getTileState(index);
+        if ((tile & Tile.BOMB) != 0) {
+            this.completeGame(LOST);
+            return;
+        }
+
+        this.countOpenedSafeTile();
+        if (Tile.bombsAround(tile) == 0) {
+            this.cascadeOpenTiles(index);
+        }
+    }
+
+    // Opens a closed, unflagged tile and returns whether this thread opened it
+    private boolean claimTile(int index) {
+        byte tile = this.getTileState(index);
+        while ((tile & (Tile.OPEN | Tile.FLAGGED)) == 0) {
+            byte witness = (byte) TILES.compareAndExchange(this.tiles, index, tile, (byte) (tile | Tile.OPEN));
+            if (witness == tile) {
+                return true;
+            }
+            tile = witness;
+        }
+        return false;
+    }
+
+    // Counts an opened safe tile. Every safe tile is counted once, so exactly one
+    // thread counts the last one and wins the game
+    private void countOpenedSafeTile() {
+        if (this.openedSafeTileCount.incrementAndGet() == this.tiles.length - this.numBombs) {
+            this.completeGame(WON);
+        }
+    }
+
+    // Opens the blank area around an opened blank tile breadth-first, like Board.
+    // The queue is local to the call, and only tiles this thread claims are queued,
+    // so a tile reached by several cascades is continued from by one of them. Stops
+    // once the game has ended
+    private void cascadeOpenTiles(int startIndex) {
+        int[] queue = new int[Integer.highestOneBit(2 * (this.width + this.height)) << 1];
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startIndex;
+
+        while (head != tail && this.isGameActive()) {
+            int index = queue[head++ & mask];
+            int x = index % this.width;
+            int y = index / this.width;
+
+            for (int i = 0; i < 8; i++) {
+                int nextX = x + NEIGHBOUR_DX[i];
+                int nextY = y + NEIGHBOUR_DY[i];
+                if (nextX < 0 || nextY < 0 || nextX >= this.width || nextY >= this.height) {
+                    continue;
+                }
+
+                int nextIndex = index + this.neighbourOffsets[i];
+                if (!this.claimTile(nextIndex)) {
+                    continue;
+                }
+                this.fireTileChanged(nextIndex);
+                this.countOpenedSafeTile();
+
+                if (Tile.bombsAround(this.getTileState(nextIndex)) == 0) {
+                    if (tail - head == queue.length) {
+                        int[] grown = new int[queue.length << 1];
+                        for (int j = head; j != tail; j++) {
+                            grown[j - head] = queue[j & mask];
+                        }
+                        queue = grown;
+                        mask = queue.length - 1;
+                        tail -= head;
+                        head = 0;
+                    }
+                    queue[tail++ & mask] = nextIndex;
+                }
+            }
+        }
+    }
+
+    // Flags can't change once the game has ended, so the bombs flagged by a win stay
+    // flagged. A win that flags this tile between reading it and clearing its flag
+    // leaves the byte unchanged, so the clear succeeds anyway. Once the game is won
+    // every closed tile is a bomb, so such a flag is put back
+    @Override
+    public void flagTile(int x, int y) {
+        this.checkBounds(x, y, "Can't flag tile outside of board");
+
+        int index = this.indexOf(x, y);
+        byte tile = this.getTileState(index);
+        while ((tile & Tile.OPEN) == 0 && this.isGameActive()) {
+            byte flipped = (byte) (tile ^ Tile.FLAGGED);
+            byte witness = (byte) TILES.compareAndExchange(this.tiles, index, tile, flipped);
+            if (witness == tile) {
+                if ((flipped & Tile.FLAGGED) != 0) {
+                    this.flagCount.incrementAndGet();
+                } else {
+                    this.flagCount.decrementAndGet();
+                    if (this.hasWon()) {
+                        this.flagBomb(index);
+                    }
+                }
+                this.fireTileChanged(index);
+                return;
+            }
+            tile = witness;
+        }
+    }
+
+    // Flags a bomb after a win and returns whether this thread flagged it
+    private boolean flagBomb(int index) {
+        byte tile = (byte) TILES.getAndBitwiseOr(this.tiles, index, (byte) Tile.FLAGGED);
+        if ((tile & Tile.FLAGGED) != 0) {
+            return false;
+        }
+        this.flagCount.incrementAndGet();
+        return true;
+    }
+
+    // Ends the game unless another thread already has, and shows the bombs: opened on
+    // a loss and flagged on a win
+    private void completeGame(int result) {
+        if (!this.state.compareAndSet(ACTIVE, result)) {
+            return;
+        }
+
+        for (int i = 0; i < this.tiles.length; i++) {
+            if ((this.getTileState(i) & Tile.BOMB) == 0) {
+                continue;
+            }
+
+            boolean changed;
+            if (result == LOST) {
+                changed = ((byte) TILES.getAndBitwiseOr(this.tiles, i, (byte) Tile.OPEN) & Tile.OPEN) == 0;
+            } else {
+                changed = this.flagBomb(i);
+            }
+            if (changed) {
+                this.fireTileChanged(i);
+            }
+        }
+
+        for (BoardListener listener : this.listeners) {
+            listener.gameCompleted();
+        }
+    }
+
+    @Override
+    public void addListener(BoardListener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(BoardListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    private void fireTileChanged(int index) {
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+
+        int x = index % this.width;
+        int y = index / this.width;
+        for (BoardListener listener : this.listeners) {
+            listener.tileChanged(x, y);
+        }
+    }
+
+    // Makes the bomb layout reproducible, as in Board. Must be called before the
+    // first opened tile
+    public synchronized void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Clears the board for a new game, like Board.reset(). Must not be called while
+    // other threads are making moves
+    @Override
+    public synchronized void reset() {
+        for (int i = 0; i < this.tiles.length; i++) {
+            TILES.setVolatile(this.tiles, i, (byte) 0);
+        }
+        this.openedSafeTileCount.set(0);
+        this.flagCount.set(0);
+        this.state.set(ACTIVE);
+        this.isBombLayoutGenerated = false;
+    }
+
+    // Same as reset(), with the next bomb layout seeded by the given seed
+    public synchronized void reset(long seed) {
+        this.reset();
+        this.setSeed(seed);
+    }
+
+    @Override
+    public boolean checkVictory() {
+        return this.getClosedSafeTileCount() == 0;
+    }
+
+    @Override
+    public boolean isGameActive() {
+        return this.state.get() == ACTIVE;
+    }
+
+    public boolean hasWon() {
+        return this.state.get() == WON;
+    }
+
+    public boolean isGameOver() {
+        return this.state.get() == LOST;
+    }
+
+    public boolean isBombLayoutGenerated() {
+        return this.isBombLayoutGenerated;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getNumBombs() {
+        return this.numBombs;
+    }
+
+    public int getOpenedSafeTileCount() {
+        return this.openedSafeTileCount.get();
+    }
+
+    public int getClosedSafeTileCount() {
+        return this.tiles.length - this.numBombs - this.openedSafeTileCount.get();
+    }
+
+    public int getFlagCount() {
+        return this.flagCount.get();
+    }
+
+    @Override
+    public int getMinesLeft() {
+        return this.numBombs - this.flagCount.get();
+    }
+}
@@ -0,0 +1,29 @@
+package minesweeper;
+
+// A board that can be played and painted. Implemented by Board, which holds every
+// tile in memory, and by ChunkedBoard for boards too large for that
+public interface GameBoard {
+    int getWidth();
+
+    int getHeight();
+
+    Tile getTile(int x, int y);
+
+    void openTile(int x, int y);
+
+    void flagTile(int x, int y);
+
+    boolean isGameActive();
+
+    boolean checkVictory();
+
+    // Number of bombs not yet accounted for by a flag, as shown by the mine counter
+    int getMinesLeft();
+
+    // Clears the board in place for a new game
+    void reset();
+
+    void addListener(BoardListener listener);
+
+    void removeListener(BoardListener listener);
+}
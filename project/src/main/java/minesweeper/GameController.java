@@ -1,32 +1,62 @@
 package minesweeper;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
 
-import javafx.event.EventHandler;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+import javafx.scene.control.Label;
 import javafx.scene.input.MouseButton;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 
+import minesweeper.solver.NoGuessGenerator;
+
 public class GameController {
     // Constants for setting tile size and padding around board (in pixels)
     private static final int TILE_SIZE = 30;
     private static final int PADDING = 20;
+    // Height of the control bar above the board, fixed in Game.fxml
+    private static final int CONTROL_HEIGHT = 50;
+    // Zoom factor of one step of the mouse wheel
+    private static final double ZOOM_STEP = 1.25;
+
+    // Size and bomb density of the huge board, which is only generated where it is
+    // explored
+    private static final int HUGE_SIZE = 100000;
+    private static final double HUGE_DENSITY = 0.17;
+    // Tiles opened per frame while a paused cascade on the huge board is finished
+    private static final int CASCADE_TILES_PER_FRAME = 1 << 16;
 
-    private Board gameBoard;
-    private FileHandler fileHandler;
+    private GameBoard gameBoard;
+    private FileHandler textFileHandler;
+    private FileHandler binaryFileHandler;
+    private FileHandler compressedFileHandler;
+    private BoardRenderer boardRenderer;
+    private NoGuessGenerator noGuessGenerator;
+    private SplittableRandom seeds = new SplittableRandom();
+    private boolean noGuess;
+    // Whether a no guessing layout is being searched for, during which clicks on the
+    // board are ignored. Searches are numbered so that one finishing after a
+    // restart or a new game is dropped
+    private boolean searchingLayout;
+    private int layoutSearchId;
+    // Finishes a cascade on the huge board that paused at its limit, a part every
+    // frame, so no open blank tile is left with closed tiles around it
+    private AnimationTimer cascadeTimer;
+    // Last mouse position while dragging the viewport
+    private double dragX;
+    private double dragY;
 
     // Defining FXML elements
     @FXML
@@ -43,140 +73,243 @@ public class GameController {
     Button newGameButton;
     @FXML
     Button saveButton;
+    @FXML
+    Label minesLeftLabel;
 
     public void initialize() {
-        fileHandler = new TextFileHandler();
+        textFileHandler = new TextFileHandler();
+        binaryFileHandler = new BinaryFileHandler();
+        compressedFileHandler = new CompressedFileHandler();
+        boardRenderer = new BoardRenderer(TILE_SIZE);
+        noGuessGenerator = new NoGuessGenerator();
+        cascadeTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (gameBoard instanceof ChunkedBoard board && board.isCascadePending()) {
+                    board.continueCascade(CASCADE_TILES_PER_FRAME);
+                    if (!board.isCascadePending()) {
+                        updateStatus();
+                    }
+                } else {
+                    this.stop();
+                }
+            }
+        };
     }
 
-    public void initGameFromFile(File saveFile) throws IOException {
-        this.gameBoard = this.fileHandler.readFromFile(saveFile);
-        this.setFXMLStyle();
+    // In no guessing mode, the bomb layout is picked on the first click among
+    // layouts that can be solved from there without guessing
+    public void setNoGuess(boolean noGuess) {
+        this.noGuess = noGuess;
+    }
 
+    public void initGameFromFile(File saveFile) throws IOException {
+        // The compressed file handler detects the format of the file
+        this.setGameBoard(this.compressedFileHandler.readFromFile(saveFile));
         this.createBoard();
+        this.setFXMLStyle();
 
         this.draw();
     }
 
+    public void initGame(BoardConfig config) {
+        this.initGame(config.getWidth(), config.getHeight(), config.getNumBombs());
+    }
+
     public void initGame(int width, int height, int numBombs) {
-        this.gameBoard = new Board(width, height, numBombs);
+        this.setGameBoard(new Board(width, height, numBombs));
 
+        this.createBoard();
         this.setFXMLStyle();
 
+        this.boardRenderer.paint();
+        this.updateStatus();
+    }
+
+    public void initHugeGame() {
+        ChunkedBoard board = new ChunkedBoard(HUGE_SIZE, HUGE_SIZE, HUGE_DENSITY, this.seeds.nextLong());
+        this.setGameBoard(board);
+
         this.createBoard();
+        this.setFXMLStyle();
+
+        this.openStartTile(board);
+        this.updateStatus();
+    }
+
+    // Replaces the board, deleting the page file of a huge board that is replaced
+    private void setGameBoard(GameBoard board) {
+        if (this.gameBoard instanceof ChunkedBoard chunkedBoard) {
+            try {
+                chunkedBoard.close();
+            } catch (IOException e) {
+                // The page file is deleted on exit anyway
+            }
+        }
+        this.cancelLayoutSearch();
+        this.gameBoard = board;
     }
 
+    // Games on a huge board start from the open area around the start tile
+    private void openStartTile(ChunkedBoard board) {
+        this.boardRenderer.centerOn(board.getStartX(), board.getStartY());
+        board.openTile(board.getStartX(), board.getStartY());
+        this.finishPausedCascade();
+    }
+
+    // Sizes the window to the viewport of the board renderer
     private void setFXMLStyle() {
-        anchorPane.setPrefHeight(this.gameBoard.getHeight() * TILE_SIZE + PADDING + 50);
-        anchorPane.setPrefWidth(this.gameBoard.getWidth() * TILE_SIZE + PADDING);
-        gridPane.setPrefHeight(this.gameBoard.getHeight() * TILE_SIZE + 50 + PADDING);
-        gridPane.setPrefWidth(this.gameBoard.getWidth() * TILE_SIZE + PADDING);
-        controlPane.setPrefHeight(this.gameBoard.getWidth() * TILE_SIZE + PADDING);
-        boardPane.setPrefHeight(this.gameBoard.getHeight() * TILE_SIZE + PADDING);
-        boardPane.setPrefWidth(this.gameBoard.getWidth() * TILE_SIZE + PADDING);
+        double viewportWidth = this.boardRenderer.getViewportWidth();
+        double viewportHeight = this.boardRenderer.getViewportHeight();
+
+        anchorPane.setPrefHeight(viewportHeight + PADDING + CONTROL_HEIGHT);
+        anchorPane.setPrefWidth(viewportWidth + PADDING);
+        gridPane.setPrefHeight(viewportHeight + CONTROL_HEIGHT + PADDING);
+        gridPane.setPrefWidth(viewportWidth + PADDING);
+        boardPane.setPrefHeight(viewportHeight + PADDING);
+        boardPane.setPrefWidth(viewportWidth + PADDING);
     }
 
+    // Starts a new game on the current board. The board is cleared in place and the
+    // renderer keeps its canvas and listener, so only the visible tiles are repainted
     public void restart() {
-        this.initGame(this.gameBoard.getWidth(), this.gameBoard.getHeight(), this.gameBoard.getNumBombs());
+        this.cancelLayoutSearch();
+        this.gameBoard.reset();
+
+        this.boardRenderer.paint();
+        if (this.gameBoard instanceof ChunkedBoard chunkedBoard) {
+            this.openStartTile(chunkedBoard);
+        }
+        this.updateStatus();
     }
 
     public void saveGameToFile(File file) throws IOException {
-        this.fileHandler.writeToFile(this.gameBoard, file);
+        if (!(this.gameBoard instanceof Board board)) {
+            throw new IOException("Huge boards can't be saved");
+        }
+        this.getFileHandler(file).writeToFile(board, file);
     }
 
-    // Creates a Pane for each tile in gameBoard and assign the properties x and y
-    // for corresponding tile. Sets OnMouseClicked event for flagging/opening tiles
-    private void createBoard() {
-        boardPane.getChildren().clear();
-        boardPane.getHeight();
-        for (int y = 0; y < gameBoard.getHeight(); y++) {
-            for (int x = 0; x < gameBoard.getWidth(); x++) {
-                Pane tilePane = new Pane();
-
-                tilePane.setTranslateX(x * TILE_SIZE + PADDING / 2);
-                tilePane.setTranslateY(y * TILE_SIZE + PADDING / 2);
-                tilePane.setPrefWidth(TILE_SIZE);
-                tilePane.setPrefHeight(TILE_SIZE);
-                tilePane.getProperties().put("x", x);
-                tilePane.getProperties().put("y", y);
-                tilePane.setOnMouseClicked(new EventHandler<MouseEvent>() {
-                    @Override
-                    public void handle(MouseEvent e) {
-                        if (gameBoard.isGameActive()) {
-                            if (e.getButton() == MouseButton.SECONDARY) {
-                                gameBoard.flagTile((int) tilePane.getProperties().get("x"),
-                                        (int) tilePane.getProperties().get("y"));
-                            } else if (e.getButton() == MouseButton.PRIMARY) {
-                                gameBoard.openTile((int) tilePane.getProperties().get("x"),
-                                        (int) tilePane.getProperties().get("y"));
-                            }
-
-                            draw();
-                        }
-                    }
-                });
+    // Binary save files use the .msb extension and compressed save files the .msz
+    // extension. All other files are saved as text
+    private FileHandler getFileHandler(File file) {
+        String filename = file.getName().toLowerCase();
+        if (filename.endsWith(".msb")) {
+            return this.binaryFileHandler;
+        }
+        if (filename.endsWith(".msz")) {
+            return this.compressedFileHandler;
+        }
+        return this.textFileHandler;
+    }
 
-                tilePane.setStyle("-fx-border-color: grey; -fx-border-width: 2px; -fx-background-color: lightgray;");
+    // Places the canvas of the board renderer in the board pane. A single click
+    // handler maps the mouse position to a tile for flagging/opening tiles.
+    // Scrolling or dragging moves the viewport on boards larger than the window,
+    // and scrolling with Ctrl held or pinching zooms. The renderer listens to the
+    // board, so a click repaints only the tiles it changed
+    private void createBoard() {
+        this.boardRenderer.setBoard(this.gameBoard);
 
-                boardPane.getChildren().add(tilePane);
+        Canvas canvas = this.boardRenderer.getCanvas();
+        canvas.setTranslateX(PADDING / 2);
+        canvas.setTranslateY(PADDING / 2);
+        canvas.setOnMouseClicked(e -> {
+            // The end of a drag is not a click on a tile
+            if (!e.isStillSincePress() || searchingLayout) {
+                return;
             }
-        }
-    }
 
-    public void draw() {
-        for (int y = 0; y < gameBoard.getHeight(); y++) {
-            for (int x = 0; x < gameBoard.getWidth(); x++) {
-                Tile tile = gameBoard.getTile(x, y);
-                Pane tilePane = (Pane) boardPane.getChildren().get(y * gameBoard.getWidth() + x);
-                tilePane.getChildren().clear();
-
-                String filename = "";
-
-                if (tile.isOpen()) {
-                    tilePane.setStyle("-fx-border-color: gray; -fx-border-width: 2px; -fx-background-color: white;");
-
-                    if (tile.isBomb()) {
-                        filename = "bomb";
-                        tilePane.setStyle(
-                                "-fx-border-color: grey; -fx-border-width: 2px; -fx-background-color: #ffa6a6;");
-                    } else if (tile.getBombsAround() > 0) {
-                        filename = String.valueOf(tile.getBombsAround());
+            int x = boardRenderer.tileXAt(e.getX());
+            int y = boardRenderer.tileYAt(e.getY());
+
+            if (gameBoard.isGameActive() && x >= 0 && y >= 0) {
+                if (e.getButton() == MouseButton.SECONDARY) {
+                    gameBoard.flagTile(x, y);
+                } else if (e.getButton() == MouseButton.PRIMARY) {
+                    if (noGuess && gameBoard instanceof Board board && !board.isBombLayoutGenerated()) {
+                        openWithNoGuessLayout(board, x, y);
+                        return;
                     }
-                } else if (tile.isFlagged()) {
-                    filename = "flag";
+                    gameBoard.openTile(x, y);
+                    finishPausedCascade();
                 }
 
-                // If filename is specified, place the corresponding image on top of the tile
-                if (filename.length() != 0) {
-                    try {
-                        InputStream imageStream = GameController.class
-                                .getResourceAsStream("resources/" + filename + ".png");
-                        Image tileImage = new Image(imageStream);
-                        ImageView tileImageView = new ImageView(tileImage);
-                        tileImageView.setFitWidth(TILE_SIZE * 0.6);
-                        tileImageView.setFitHeight(TILE_SIZE * 0.6);
-                        tileImageView.setX(TILE_SIZE * 0.2);
-                        tileImageView.setY(TILE_SIZE * 0.2);
-                        tilePane.getChildren().add(tileImageView);
-                        imageStream.close();
-                    } catch (FileNotFoundException e) {
-                        Alert errorAlert = new Alert(AlertType.ERROR,
-                                "Failed to load game resources. Try reinstalling the game.", ButtonType.OK);
-                        errorAlert.showAndWait();
-                        System.exit(0);
-                    } catch (NullPointerException e) {
-                        Alert errorAlert = new Alert(AlertType.ERROR,
-                                "Failed to load game resources. Try reinstalling the game.", ButtonType.OK);
-                        errorAlert.showAndWait();
-                        System.exit(0);
-                    } catch (IOException e) {
-                        Alert errorAlert = new Alert(AlertType.ERROR,
-                                "Failed to load game resources. Try reinstalling the game.", ButtonType.OK);
-                        errorAlert.showAndWait();
-                        System.exit(0);
-                    }
+                updateStatus();
+            }
+        });
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnMouseDragged(e -> {
+            boardRenderer.scrollBy(dragX - e.getX(), dragY - e.getY());
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnScroll(e -> {
+            if (e.isControlDown()) {
+                if (e.getDeltaY() != 0) {
+                    boardRenderer.zoomBy(e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getX(), e.getY());
                 }
+            } else {
+                boardRenderer.scrollBy(-e.getDeltaX(), -e.getDeltaY());
             }
+        });
+        canvas.setOnZoom(e -> boardRenderer.zoomBy(e.getZoomFactor(), e.getX(), e.getY()));
+
+        boardPane.getChildren().setAll(canvas);
+
+        // Only boards with every tile in memory can be saved
+        saveButton.setDisable(!(this.gameBoard instanceof Board));
+    }
+
+    // Searches for a solvable layout in the background, as it can take thousands of
+    // attempts, and opens the first tile on the FX thread once it is done. Falls
+    // back to a random layout if no solvable one is found
+    private void openWithNoGuessLayout(Board board, int x, int y) {
+        int searchId = ++this.layoutSearchId;
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int numBombs = board.getNumBombs();
+        long baseSeed = this.seeds.nextLong();
+
+        this.searchingLayout = true;
+        CompletableFuture.supplyAsync(() -> this.noGuessGenerator.findSeed(width, height, numBombs, x, y, baseSeed))
+                .whenComplete((seed, error) -> Platform.runLater(() -> {
+                    if (searchId != this.layoutSearchId || this.gameBoard != board) {
+                        return;
+                    }
+                    this.searchingLayout = false;
+
+                    if (seed != null) {
+                        seed.ifPresent(board::setSeed);
+                    }
+                    board.openTile(x, y);
+                    this.updateStatus();
+                }));
+    }
+
+    private void finishPausedCascade() {
+        if (this.gameBoard instanceof ChunkedBoard board && board.isCascadePending()) {
+            this.cascadeTimer.start();
         }
+    }
+
+    private void cancelLayoutSearch() {
+        this.layoutSearchId++;
+        this.searchingLayout = false;
+    }
+
+    public void draw() {
+        this.boardRenderer.paint();
+
+        this.updateStatus();
+    }
+
+    // Updates the mine counter and shows a message if the game is won
+    private void updateStatus() {
+        minesLeftLabel.setText("Mines left: " + gameBoard.getMinesLeft());
 
         if (gameBoard.checkVictory()) {
             Alert winAlert = new Alert(AlertType.NONE, "You Won!", ButtonType.OK);
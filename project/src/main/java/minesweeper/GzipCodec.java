@@ -0,0 +1,27 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Compresses save files with GZIP (Deflate)
+public class GzipCodec implements SaveCodec {
+    static final byte ID = 1;
+
+    // Size of the buffers used by the GZIP streams (in bytes)
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public byte getId() {
+        return ID;
+    }
+
+    public OutputStream compress(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE);
+    }
+
+    public InputStream decompress(InputStream in) throws IOException {
+        return new GZIPInputStream(in, BUFFER_SIZE);
+    }
+}
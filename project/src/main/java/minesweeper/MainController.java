@@ -2,6 +2,7 @@ package minesweeper;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 
 public class MainController {
     // Defining FXML elements
@@ -12,5 +13,9 @@ public class MainController {
     @FXML
     Button hardButton;
     @FXML
+    Button hugeButton;
+    @FXML
     Button loadButton;
+    @FXML
+    CheckBox noGuessCheckBox;
 }
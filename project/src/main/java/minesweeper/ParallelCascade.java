@@ -0,0 +1,163 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Opens the rest of a large blank area for Board.cascadeOpenTiles on a
+// ForkJoinPool. Every task runs breadth-first over a queue of its own, and hands
+// half of it to a new task when the queue is long and the pool is running out of
+// work, which idle threads then steal. Tiles are marked open with a
+// compare-and-set, so each tile is opened and continued from by exactly one task,
+// and the opened area is the same as with the sequential cascade
+class ParallelCascade {
+    private static final VarHandle TILES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    // Queued tiles a task keeps before it may hand half of them to a new task
+    private static final int SPLIT_SIZE = 256;
+    // Returned by claimTile for tiles that were not opened. No closed tile has this
+    // state, as it has the open bit set
+    private static final byte NOT_CLAIMED = -1;
+
+    private static final int[] NEIGHBOUR_DX = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final int[] NEIGHBOUR_DY = { -1, -1, -1, 0, 0, 1, 1, 1 };
+
+    private final byte[] tiles;
+    private final int width;
+    private final int height;
+    private final int[] neighbourOffsets;
+    // Whether the opened tiles are kept, for boards with listeners to tell
+    private final boolean recordOpened;
+
+    private final AtomicInteger openedCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<int[]> opened = new ConcurrentLinkedQueue<>();
+
+    ParallelCascade(byte[] tiles, int width, int height, boolean recordOpened) {
+        this.tiles = tiles;
+        this.width = width;
+        this.height = height;
+        this.neighbourOffsets = new int[] { -width - 1, -width, -width + 1, -1, 1, width - 1, width, width + 1 };
+        this.recordOpened = recordOpened;
+    }
+
+    // Continues the cascade from open blank tiles that have not been continued from
+    // yet, and returns once the whole area is open
+    void run(ForkJoinPool pool, int[] frontier) {
+        pool.invoke(new CascadeTask(this, frontier, frontier.length));
+    }
+
+    int getOpenedCount() {
+        return this.openedCount.get();
+    }
+
+    // Tile indices opened by the cascade, in one array per task
+    Iterable<int[]> getOpened() {
+        return this.opened;
+    }
+
+    private static class CascadeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ParallelCascade cascade;
+        private int[] queue;
+        private int head;
+        private int tail;
+
+        CascadeTask(ParallelCascade cascade, int[] queue, int length) {
+            this.cascade = cascade;
+            this.queue = queue;
+            this.tail = length;
+        }
+
+        @Override
+        protected void compute() {
+            ParallelCascade cascade = this.cascade;
+            List<CascadeTask> forks = new ArrayList<>();
+            int[] openedTiles = cascade.recordOpened ? new int[64] : null;
+            int numOpened = 0;
+
+            while (this.head != this.tail) {
+                if (this.tail - this.head > SPLIT_SIZE && getSurplusQueuedTaskCount() < 2) {
+                    int half = (this.tail - this.head) / 2;
+                    CascadeTask fork = new CascadeTask(cascade,
+                            Arrays.copyOfRange(this.queue, this.head, this.head + half), half);
+                    this.head += half;
+                    fork.fork();
+                    forks.add(fork);
+                }
+
+                int index = this.queue[this.head++];
+                int x = index % cascade.width;
+                int y = index / cascade.width;
+
+                for (int i = 0; i < 8; i++) {
+                    int nextX = x + NEIGHBOUR_DX[i];
+                    int nextY = y + NEIGHBOUR_DY[i];
+                    if (nextX < 0 || nextY < 0 || nextX >= cascade.width || nextY >= cascade.height) {
+                        continue;
+                    }
+
+                    int nextIndex = index + cascade.neighbourOffsets[i];
+                    byte tile = cascade.claimTile(nextIndex);
+                    if (tile == NOT_CLAIMED) {
+                        continue;
+                    }
+
+                    if (openedTiles != null) {
+                        if (numOpened == openedTiles.length) {
+                            openedTiles = Arrays.copyOf(openedTiles, numOpened * 2);
+                        }
+                        openedTiles[numOpened] = nextIndex;
+                    }
+                    numOpened++;
+
+                    if (Tile.bombsAround(tile) == 0) {
+                        this.push(nextIndex);
+                    }
+                }
+            }
+
+            cascade.openedCount.addAndGet(numOpened);
+            if (openedTiles != null && numOpened > 0) {
+                cascade.opened.add(Arrays.copyOf(openedTiles, numOpened));
+            }
+            for (CascadeTask fork : forks) {
+                fork.join();
+            }
+        }
+
+        private void push(int index) {
+            if (this.tail == this.queue.length) {
+                int size = this.tail - this.head;
+                // Reuses the space of taken tiles when it is at least half the queue,
+                // and doubles the queue otherwise
+                int[] queue = size <= this.queue.length / 2 ? this.queue : new int[this.queue.length * 2];
+                System.arraycopy(this.queue, this.head, queue, 0, size);
+                this.queue = queue;
+                this.head = 0;
+                this.tail = size;
+            }
+            this.queue[this.tail++] = index;
+        }
+    }
+
+    // Opens a closed, unflagged tile and returns its state before, or NOT_CLAIMED if
+    // it was already open or flagged
+    private byte claimTile(int index) {
+        byte tile = (byte) TILES.getVolatile(this.tiles, index);
+        while ((tile & (Tile.OPEN | Tile.FLAGGED)) == 0) {
+            byte witness = (byte) TILES.compareAndExchange(this.tiles, index, tile, (byte) (tile | Tile.OPEN));
+            if (witness == tile) {
+                return tile;
+            }
+            tile = witness;
+        }
+        return NOT_CLAIMED;
+    }
+}
@@ -0,0 +1,205 @@
+package minesweeper;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// Compresses save files with run-length encoding in the PackBits format. Each run
+// starts with a control byte n: 0 to 127 is followed by n + 1 literal bytes, and
+// -1 to -127 is followed by one byte repeated 1 - n times. The flag and open
+// planes are mostly long runs of zeros, while the bomb plane is stored mostly as
+// literals, at a cost of one control byte per 128 bytes
+public class RunLengthCodec implements SaveCodec {
+    static final byte ID = 2;
+
+    private static final int MAX_RUN = 128;
+
+    public byte getId() {
+        return ID;
+    }
+
+    public OutputStream compress(OutputStream out) {
+        return new RunLengthOutputStream(out);
+    }
+
+    public InputStream decompress(InputStream in) {
+        return new RunLengthInputStream(in);
+    }
+
+    private static class RunLengthOutputStream extends FilterOutputStream {
+        // Bytes that are not yet written, all equal if repeatCount > 1
+        private final byte[] pending = new byte[MAX_RUN];
+        private int pendingCount;
+        private int repeatCount;
+
+        RunLengthOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            byte value = (byte) b;
+
+            if (this.repeatCount > 0) {
+                // Extends the current run of repeated bytes
+                if (value == this.pending[0] && this.repeatCount < MAX_RUN) {
+                    this.repeatCount++;
+                    return;
+                }
+                this.flushRepeat();
+            } else if (this.pendingCount >= 2 && value == this.pending[this.pendingCount - 1]
+                    && value == this.pending[this.pendingCount - 2]) {
+                // Three equal bytes in a row start a run of repeated bytes
+                this.pendingCount -= 2;
+                this.flushLiterals();
+                this.pending[0] = value;
+                this.repeatCount = 3;
+                return;
+            }
+
+            if (this.pendingCount == MAX_RUN) {
+                this.flushLiterals();
+            }
+            this.pending[this.pendingCount++] = value;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                this.write(bytes[i]);
+            }
+        }
+
+        private void flushLiterals() throws IOException {
+            if (this.pendingCount > 0) {
+                this.out.write(this.pendingCount - 1);
+                this.out.write(this.pending, 0, this.pendingCount);
+                this.pendingCount = 0;
+            }
+        }
+
+        private void flushRepeat() throws IOException {
+            this.out.write(1 - this.repeatCount);
+            this.out.write(this.pending[0]);
+            this.repeatCount = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (this.repeatCount > 0) {
+                this.flushRepeat();
+            } else {
+                this.flushLiterals();
+            }
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.flush();
+            this.out.close();
+        }
+    }
+
+    private static class RunLengthInputStream extends FilterInputStream {
+        private final byte[] literals = new byte[MAX_RUN];
+        // Bytes left of the current run, and whether they are literals or a repeat
+        private int remaining;
+        private int position;
+        private boolean repeat;
+        private int repeatValue;
+
+        RunLengthInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining == 0 && !this.nextRun()) {
+                return -1;
+            }
+
+            this.remaining--;
+            return this.repeat ? this.repeatValue : this.literals[this.position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            int count = 0;
+            while (count < length) {
+                if (this.remaining == 0 && !this.nextRun()) {
+                    break;
+                }
+
+                int n = Math.min(this.remaining, length - count);
+                if (this.repeat) {
+                    Arrays.fill(bytes, offset + count, offset + count + n, (byte) this.repeatValue);
+                } else {
+                    System.arraycopy(this.literals, this.position, bytes, offset + count, n);
+                    this.position += n;
+                }
+                this.remaining -= n;
+                count += n;
+            }
+            return count == 0 ? -1 : count;
+        }
+
+        // Reads the control byte and data of the next run. Returns false at the end
+        // of the stream
+        private boolean nextRun() throws IOException {
+            int control;
+            do {
+                control = this.in.read();
+                if (control == -1) {
+                    return false;
+                }
+                control = (byte) control;
+            } while (control == -128);
+
+            if (control >= 0) {
+                this.repeat = false;
+                this.remaining = control + 1;
+                this.position = 0;
+                int read = this.in.readNBytes(this.literals, 0, this.remaining);
+                if (read < this.remaining) {
+                    throw new EOFException("Run-length data ends in the middle of a run");
+                }
+            } else {
+                this.repeat = true;
+                this.remaining = 1 - control;
+                this.repeatValue = this.in.read();
+                if (this.repeatValue == -1) {
+                    throw new EOFException("Run-length data ends in the middle of a run");
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int available() {
+            return this.remaining;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && this.read() != -1) {
+                skipped++;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// A compression codec for CompressedFileHandler. Each codec is identified in save
+// files by a single byte id
+public interface SaveCodec {
+    byte getId();
+
+    // Wraps a stream so that data written to it is compressed. Closing the returned
+    // stream finishes the compressed data and closes the wrapped stream
+    OutputStream compress(OutputStream out) throws IOException;
+
+    InputStream decompress(InputStream in) throws IOException;
+}
@@ -0,0 +1,95 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+// Loads and decodes the tile images once and packs them side by side into a
+// single atlas image, shared by every renderer for the lifetime of the app.
+// Images that fail to load are recorded here instead of being handled by every
+// caller
+public class SpriteCache {
+    // Sprite ids, in the order the sprites are placed in the atlas. The numbers 1
+    // to 8 use the ids 0 to 7
+    public static final int BOMB = 8;
+    public static final int FLAG = 9;
+    private static final String[] FILENAMES = { "1", "2", "3", "4", "5", "6", "7", "8", "bomb", "flag" };
+
+    // Width and height of each sprite in the atlas (in pixels)
+    private static final int SPRITE_SIZE = 64;
+
+    private static SpriteCache instance;
+
+    private final WritableImage atlas;
+    private final List<String> failedResources = new ArrayList<>();
+
+    private SpriteCache() {
+        this.atlas = new WritableImage(SPRITE_SIZE * FILENAMES.length, SPRITE_SIZE);
+        PixelWriter atlasWriter = this.atlas.getPixelWriter();
+
+        for (int sprite = 0; sprite < FILENAMES.length; sprite++) {
+            Image image = this.loadImage(FILENAMES[sprite]);
+            if (image != null) {
+                int width = Math.min((int) image.getWidth(), SPRITE_SIZE);
+                int height = Math.min((int) image.getHeight(), SPRITE_SIZE);
+                atlasWriter.setPixels(sprite * SPRITE_SIZE, 0, width, height, image.getPixelReader(), 0, 0);
+            }
+        }
+    }
+
+    // Returns the shared sprite cache, loading the images the first time it is
+    // called. Must be called on the JavaFX application thread
+    public static SpriteCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteCache();
+        }
+        return instance;
+    }
+
+    public static int numberSprite(int bombsAround) {
+        if (bombsAround < 1 || bombsAround > 8) {
+            throw new IllegalArgumentException("There are only sprites for the numbers 1 to 8");
+        }
+        return bombsAround - 1;
+    }
+
+    private Image loadImage(String filename) {
+        String path = "resources/" + filename + ".png";
+        try (InputStream imageStream = SpriteCache.class.getResourceAsStream(path)) {
+            if (imageStream == null) {
+                this.failedResources.add(path);
+                return null;
+            }
+
+            Image image = new Image(imageStream);
+            if (image.isError()) {
+                this.failedResources.add(path);
+                return null;
+            }
+            return image;
+        } catch (IOException e) {
+            this.failedResources.add(path);
+            return null;
+        }
+    }
+
+    public boolean hasFailedResources() {
+        return !this.failedResources.isEmpty();
+    }
+
+    public List<String> getFailedResources() {
+        return Collections.unmodifiableList(this.failedResources);
+    }
+
+    // Draws a sprite from the atlas scaled to the given area
+    public void drawSprite(GraphicsContext graphics, int sprite, double x, double y, double width, double height) {
+        graphics.drawImage(this.atlas, sprite * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE, x, y, width, height);
+    }
+}
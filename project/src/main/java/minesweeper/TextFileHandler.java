@@ -1,62 +1,93 @@
 package minesweeper;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.Reader;
 import java.util.Arrays;
-import java.util.List;
 
+// Saves boards as text: a line of board properties (see Board.getBoardProps())
+// followed by one line per row with a token like "bxo " per tile, where b, f and
+// o mark a bomb, a flag and an open tile, and x marks their absence. Files are
+// read in two passes: the first counts the rows, and the second parses one
+// character at a time straight into the board, so reading needs no more memory
+// than one row on top of the board itself
 public class TextFileHandler implements FileHandler {
+    // Size of the character buffer used for reading (in chars)
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
     public Board readFromFile(File file) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(file));
+        // The first pass only counts the rows, which gives the height of the board
+        int boardHeight;
+        try (Reader reader = new FileReader(file)) {
+            CharScanner scanner = new CharScanner(reader);
+            scanner.skipLine();
+            boardHeight = scanner.countNonBlankLines();
+        }
 
-        try {
-            // Reading board properties
-            String[] props = reader.readLine().split(" ");
+        try (Reader reader = new FileReader(file)) {
+            CharScanner scanner = new CharScanner(reader);
 
-            // Creating two-dimensional ArrayList from the file content
-            List<List<String>> boardLayout = new ArrayList<>();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                boardLayout.add(Arrays.asList(line.split(" ")));
+            // Reading board properties
+            int[] props = new int[4];
+            for (int i = 0; i < props.length; i++) {
+                props[i] = scanner.readInt();
             }
+            scanner.skipLine();
 
-            int boardHeight = boardLayout.size();
-            int boardWidth = boardLayout.get(0).size();
-            int numBombs = Integer.valueOf(props[0]);
+            // The first row gives the width of the board
+            byte[] firstRow = new byte[16];
+            int boardWidth = 0;
+            int tile;
+            while ((tile = scanner.readTile()) >= 0) {
+                if (boardWidth == firstRow.length) {
+                    firstRow = Arrays.copyOf(firstRow, boardWidth * 2);
+                }
+                firstRow[boardWidth++] = (byte) tile;
+            }
 
-            Board board = new Board(boardWidth, boardHeight, numBombs);
+            Board board = new Board(boardWidth, boardHeight, props[0]);
 
             // Set fields in Board object
-            board.setBoardProps(Integer.valueOf(props[0]), Integer.valueOf(props[1]) != 0,
-                    Integer.valueOf(props[2]) != 0, Integer.valueOf(props[3]) != 0);
+            board.setBoardProps(props[0], props[1] != 0, props[2] != 0, props[3] != 0);
 
             // Load tile data from file
-            for (int y = 0; y < boardHeight; y++) {
+            for (int x = 0; x < boardWidth; x++) {
+                board.loadTileState(x, firstRow[x]);
+            }
+            for (int y = 1; y < boardHeight; y++) {
+                int rowStart = y * boardWidth;
                 for (int x = 0; x < boardWidth; x++) {
-                    String tileData = boardLayout.get(y).get(x);
-
-                    boolean bomb = tileData.contains("b");
-                    boolean flagged = tileData.contains("f");
-                    boolean open = tileData.contains("o");
+                    tile = scanner.readTile();
+                    if (tile < 0) {
+                        // Row is shorter than the first row, or a blank line comes
+                        // before the last row
+                        throw new IOException("Invalid save file!");
+                    }
+                    board.loadTileState(rowStart + x, (byte) tile);
+                }
+                if (scanner.readTile() >= 0) {
+                    // Row is longer than the first row
+                    throw new IOException("Invalid save file!");
+                }
+            }
 
-                    board.setTileProps(x, y, bomb, flagged, open);
+            // Only blank lines may follow the last row
+            while ((tile = scanner.readTile()) != CharScanner.END_OF_FILE) {
+                if (tile >= 0) {
+                    throw new IOException("Invalid save file!");
                 }
             }
 
+            // Numbers are calculated once all bombs are in place
+            board.calculateTileNumbers();
+
             return board;
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | ArithmeticException e) {
             // File contains illegal values
             throw new IOException("Invalid save file!");
-        } catch (IndexOutOfBoundsException e) {
-            // File is not formatted correctly
-            throw new IOException("Invalid save file!");
-        } finally {
-            reader.close();
         }
     }
 
@@ -67,14 +98,20 @@ public class TextFileHandler implements FileHandler {
             writer.write(board.getBoardProps());
             writer.newLine();
 
+            // Each row is filled into a reusable buffer and written at once
+            char[] row = new char[board.getWidth() * 4];
             for (int y = 0; y < board.getHeight(); y++) {
+                int rowStart = y * board.getWidth();
                 for (int x = 0; x < board.getWidth(); x++) {
-                    Tile tile = board.getTile(x, y);
-                    writer.write(tile.isBomb() ? "b" : "x");
-                    writer.write(tile.isFlagged() ? "f" : "x");
-                    writer.write(tile.isOpen() ? "o " : "x ");
+                    byte state = board.getTileState(rowStart + x);
+                    int i = x * 4;
+                    row[i] = (state & Tile.BOMB) != 0 ? 'b' : 'x';
+                    row[i + 1] = (state & Tile.FLAGGED) != 0 ? 'f' : 'x';
+                    row[i + 2] = (state & Tile.OPEN) != 0 ? 'o' : 'x';
+                    row[i + 3] = ' ';
                 }
 
+                writer.write(row);
                 writer.newLine();
             }
         } finally {
@@ -82,4 +119,119 @@ public class TextFileHandler implements FileHandler {
             writer.close();
         }
     }
-}
\ No newline at end of file
+
+    // Reads save files one character at a time from a reusable buffer
+    private static class CharScanner {
+        static final int END_OF_LINE = -1;
+        static final int END_OF_FILE = -2;
+
+        private final Reader reader;
+        private final char[] buffer = new char[READ_BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        CharScanner(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Returns the next character, or -1 at the end of the file
+        private int read() throws IOException {
+            if (this.position == this.limit) {
+                this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+                this.position = 0;
+                if (this.limit <= 0) {
+                    this.limit = 0;
+                    return -1;
+                }
+            }
+
+            return this.buffer[this.position++];
+        }
+
+        // Counts the remaining lines with anything other than spaces on them
+        int countNonBlankLines() throws IOException {
+            int lines = 0;
+            boolean blank = true;
+            int c;
+            while ((c = this.read()) != -1) {
+                if (c == '\n') {
+                    lines += blank ? 0 : 1;
+                    blank = true;
+                } else if (c != ' ' && c != '\r') {
+                    blank = false;
+                }
+            }
+            return lines + (blank ? 0 : 1);
+        }
+
+        // Reads a non-negative integer, skipping the spaces before it
+        int readInt() throws IOException {
+            int c = this.read();
+            while (c == ' ') {
+                c = this.read();
+            }
+            if (c < '0' || c > '9') {
+                throw new IOException("Invalid save file!");
+            }
+
+            int value = 0;
+            while (c >= '0' && c <= '9') {
+                value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+                c = this.read();
+            }
+
+            // The last value on a line may be followed directly by the line break
+            if (c == '\n') {
+                this.unread();
+            }
+            return value;
+        }
+
+        // Skips the rest of the current line
+        void skipLine() throws IOException {
+            int c = this.read();
+            while (c != '\n' && c != -1) {
+                c = this.read();
+            }
+        }
+
+        // Reads the next tile token on the current line and returns its packed state,
+        // or END_OF_LINE / END_OF_FILE when there are no more tokens
+        int readTile() throws IOException {
+            int c = this.read();
+            while (c == ' ' || c == '\r') {
+                c = this.read();
+            }
+            if (c == '\n') {
+                return END_OF_LINE;
+            }
+            if (c == -1) {
+                return END_OF_FILE;
+            }
+
+            int state = 0;
+            while (c != ' ' && c != '\n' && c != -1) {
+                if (c == 'b') {
+                    state |= Tile.BOMB;
+                } else if (c == 'f') {
+                    state |= Tile.FLAGGED;
+                } else if (c == 'o') {
+                    state |= Tile.OPEN;
+                }
+                c = this.read();
+            }
+
+            // A line break ends the token as well as the line, so it is put back to be
+            // reported by the next call
+            if (c == '\n') {
+                this.unread();
+            }
+            return state;
+        }
+
+        // Puts back the character just read from the buffer
+        private void unread() {
+            this.position--;
+        }
+    }
+}
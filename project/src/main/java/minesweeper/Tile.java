@@ -1,53 +1,80 @@
 package minesweeper;
 
+// A tile is stored as a single packed byte. Board keeps one such byte per grid
+// square in a flat array, and hands out Tile objects as lightweight snapshots
+// of that byte so callers can keep using the getters below.
 public class Tile {
-    private boolean open;
-    private boolean bomb;
-    private boolean flagged;
-    private int bombsAround;
+    // Bit layout of the packed tile state
+    static final int BOMB = 1;
+    static final int OPEN = 1 << 1;
+    static final int FLAGGED = 1 << 2;
+    static final int BOMBS_AROUND_SHIFT = 4;
+    static final int BOMBS_AROUND_MASK = 0xF0;
+
+    private byte state;
 
     // Empty constructor for initializing new tile with default values
     public Tile() {
     }
 
     public Tile(boolean bomb, boolean flagged, boolean open) {
-        this.open = open;
-        this.flagged = flagged;
-        this.bomb = bomb;
+        this.state = pack(bomb, flagged, open);
+    }
+
+    // Creates a snapshot of a packed tile state (used by Board.getTile)
+    Tile(byte state) {
+        this.state = state;
     }
 
     public boolean isBomb() {
-        return this.bomb;
+        return (this.state & BOMB) != 0;
     }
 
     public boolean isOpen() {
-        return this.open;
+        return (this.state & OPEN) != 0;
     }
 
     public boolean isFlagged() {
-        return this.flagged;
+        return (this.state & FLAGGED) != 0;
     }
 
     public int getBombsAround() {
-        return this.bombsAround;
+        return bombsAround(this.state);
     }
 
     public void setBomb() {
-        this.bomb = true;
+        this.state |= BOMB;
     }
 
     public void setBombsAround(int bombsAround) {
         if (bombsAround < 0) {
             throw new IllegalArgumentException("Bombs around a tile cant be negative");
         }
-        this.bombsAround = bombsAround;
+        if (bombsAround > 9) {
+            throw new IllegalArgumentException("Bombs around a tile cant exceed the 9 tiles it covers");
+        }
+        this.state = withBombsAround(this.state, bombsAround);
     }
 
     public void open() {
-        this.open = true;
+        this.state |= OPEN;
     }
 
     public void toggleFlag() {
-        this.flagged = !this.flagged;
+        this.state ^= FLAGGED;
+    }
+
+    // Helpers for reading and writing the packed format
+
+    static byte pack(boolean bomb, boolean flagged, boolean open) {
+        return (byte) ((bomb ? BOMB : 0) | (flagged ? FLAGGED : 0) | (open ? OPEN : 0));
+    }
+
+    static int bombsAround(byte state) {
+        return (state & BOMBS_AROUND_MASK) >>> BOMBS_AROUND_SHIFT;
+    }
+
+    static byte withBombsAround(byte state, int bombsAround) {
+        return (byte) ((state & ~BOMBS_AROUND_MASK) | (bombsAround << BOMBS_AROUND_SHIFT));
     }
-}
\ No newline at end of file
+}
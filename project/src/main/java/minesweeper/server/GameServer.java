@@ -0,0 +1,105 @@
+package minesweeper.server;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+
+// Hosts many games at once, keyed by game id. Sessions are kept in a
+// ConcurrentHashMap, so creating, finding and closing games takes no global lock,
+// and each session serializes the moves on its own board (see GameSession).
+//
+// Moves can be made directly from the calling thread, or submitted to run on the
+// ForkJoinPool of the server. The pool is work-stealing, so a few threads per core
+// keep up with many clients whose moves are short
+public class GameServer implements AutoCloseable {
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    public GameServer() {
+        this(new ForkJoinPool(), true);
+    }
+
+    // Runs submitted moves on the given pool, which is left running on close
+    public GameServer(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    private GameServer(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    // Creates a game with a random bomb layout and returns its id
+    public long createGame(BoardConfig config) {
+        return this.createGame(config, new SplittableRandom().nextLong());
+    }
+
+    // Creates a game with the bomb layout given by the seed and returns its id
+    public long createGame(BoardConfig config, long seed) {
+        Board board = config.createBoard();
+        board.setSeed(seed);
+
+        long id = this.nextId.getAndIncrement();
+        this.sessions.put(id, new GameSession(id, board));
+        return id;
+    }
+
+    public GameSession getSession(long id) {
+        GameSession session = this.sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("No game with id " + id);
+        }
+        return session;
+    }
+
+    public GameState openTile(long id, int x, int y) {
+        return this.getSession(id).openTile(x, y);
+    }
+
+    public GameState flagTile(long id, int x, int y) {
+        return this.getSession(id).flagTile(x, y);
+    }
+
+    // Starts a new game with the layout given by the seed under the same id
+    public void restartGame(long id, long seed) {
+        this.getSession(id).reset(seed);
+    }
+
+    // Opens a tile on the pool of the server. Unknown ids throw right away, while
+    // errors of the move itself complete the future exceptionally
+    public CompletableFuture<GameState> submitOpenTile(long id, int x, int y) {
+        GameSession session = this.getSession(id);
+        return CompletableFuture.supplyAsync(() -> session.openTile(x, y), this.pool);
+    }
+
+    public CompletableFuture<GameState> submitFlagTile(long id, int x, int y) {
+        GameSession session = this.getSession(id);
+        return CompletableFuture.supplyAsync(() -> session.flagTile(x, y), this.pool);
+    }
+
+    // Removes a game. Moves already running on it still finish
+    public void closeGame(long id) {
+        if (this.sessions.remove(id) == null) {
+            throw new IllegalArgumentException("No game with id " + id);
+        }
+    }
+
+    public int getGameCount() {
+        return this.sessions.size();
+    }
+
+    // Shuts down the pool if the server created it
+    @Override
+    public void close() {
+        if (this.ownsPool) {
+            this.pool.shutdown();
+        }
+    }
+}
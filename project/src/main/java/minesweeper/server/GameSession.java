@@ -0,0 +1,66 @@
+package minesweeper.server;
+
+import minesweeper.Board;
+import minesweeper.Tile;
+
+// A game hosted by a GameServer. Board is not thread safe, so every access to the
+// board holds the lock of the session. Moves on one game run one at a time, while
+// moves on different games never wait for each other
+public class GameSession {
+    private final long id;
+    private final Board board;
+    private long moves;
+
+    GameSession(long id, Board board) {
+        this.id = id;
+        this.board = board;
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    synchronized GameState openTile(int x, int y) {
+        this.board.openTile(x, y);
+        this.moves++;
+        return this.getState();
+    }
+
+    synchronized GameState flagTile(int x, int y) {
+        this.board.flagTile(x, y);
+        this.moves++;
+        return this.getState();
+    }
+
+    synchronized void reset(long seed) {
+        this.board.reset(seed);
+    }
+
+    public synchronized GameState getState() {
+        if (this.board.hasWon()) {
+            return GameState.WON;
+        }
+        return this.board.isGameOver() ? GameState.LOST : GameState.ACTIVE;
+    }
+
+    public synchronized Tile getTile(int x, int y) {
+        return this.board.getTile(x, y);
+    }
+
+    public int getWidth() {
+        return this.board.getWidth();
+    }
+
+    public int getHeight() {
+        return this.board.getHeight();
+    }
+
+    public synchronized int getMinesLeft() {
+        return this.board.getMinesLeft();
+    }
+
+    // Moves made since the session was created
+    public synchronized long getMoves() {
+        return this.moves;
+    }
+}
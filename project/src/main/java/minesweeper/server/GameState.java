@@ -0,0 +1,6 @@
+package minesweeper.server;
+
+// State of a game after a move
+public enum GameState {
+    ACTIVE, WON, LOST
+}
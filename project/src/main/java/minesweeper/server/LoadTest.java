@@ -0,0 +1,128 @@
+package minesweeper.server;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import minesweeper.BoardConfig;
+
+// Measures the moves per second of a GameServer as the number of threads grows.
+// Clients run as tasks on the pool of the server, each making random moves on
+// random games, so several clients often share a game and wait for its lock.
+// Games that end are restarted with a new layout
+public class LoadTest {
+    // Moves made by a single client task
+    private static final int MOVES_PER_CLIENT = 10000;
+    // Share of moves that flag a tile instead of opening it
+    private static final double FLAG_RATE = 0.1;
+
+    private final BoardConfig config;
+    private final int numGames;
+
+    public LoadTest(BoardConfig config, int numGames) {
+        if (numGames < 1) {
+            throw new IllegalArgumentException("Load test needs at least one game");
+        }
+        this.config = config;
+        this.numGames = numGames;
+    }
+
+    // Makes about the given number of moves with the given number of threads and
+    // returns the moves per second
+    public double run(int threads, long moves, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (GameServer server = new GameServer(pool)) {
+            long[] ids = new long[this.numGames];
+            SplittableRandom seeds = new SplittableRandom(seed);
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = server.createGame(this.config, seeds.nextLong());
+            }
+
+            int numClients = (int) Math.max(1, moves / MOVES_PER_CLIENT);
+            LongAdder moveCount = new LongAdder();
+            long start = System.nanoTime();
+            pool.invoke(new ClientsTask(server, this.config, ids, seeds.split(), 0, numClients, moveCount));
+            long elapsed = System.nanoTime() - start;
+
+            return moveCount.sum() * 1e9 / elapsed;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Splits the clients in halves until a single client is left, which then makes
+    // its moves
+    private static class ClientsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GameServer server;
+        private final BoardConfig config;
+        private final long[] ids;
+        private final SplittableRandom random;
+        private final int firstClient;
+        private final int numClients;
+        private final LongAdder moveCount;
+
+        ClientsTask(GameServer server, BoardConfig config, long[] ids, SplittableRandom random, int firstClient,
+                int numClients, LongAdder moveCount) {
+            this.server = server;
+            this.config = config;
+            this.ids = ids;
+            this.random = random;
+            this.firstClient = firstClient;
+            this.numClients = numClients;
+            this.moveCount = moveCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.numClients > 1) {
+                int half = this.numClients / 2;
+                ClientsTask first = new ClientsTask(this.server, this.config, this.ids, this.random.split(),
+                        this.firstClient, half, this.moveCount);
+                ClientsTask second = new ClientsTask(this.server, this.config, this.ids, this.random,
+                        this.firstClient + half, this.numClients - half, this.moveCount);
+                invokeAll(first, second);
+                return;
+            }
+
+            for (int i = 0; i < MOVES_PER_CLIENT; i++) {
+                long id = this.ids[this.random.nextInt(this.ids.length)];
+                int x = this.random.nextInt(this.config.getWidth());
+                int y = this.random.nextInt(this.config.getHeight());
+
+                GameState state = this.random.nextDouble() < FLAG_RATE ? this.server.flagTile(id, x, y)
+                        : this.server.openTile(id, x, y);
+                if (state != GameState.ACTIVE) {
+                    this.server.restartGame(id, this.random.nextLong());
+                }
+            }
+            this.moveCount.add(MOVES_PER_CLIENT);
+        }
+    }
+
+    // Runs the load test from the command line, doubling the threads up to the
+    // number of cores:
+    // LoadTest <easy|medium|hard|WxHxB> [games] [moves]
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: LoadTest <easy|medium|hard|WxHxB> [games] [moves]");
+            return;
+        }
+
+        BoardConfig config = BoardConfig.parse(args[0]);
+        int numGames = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        long moves = args.length > 2 ? Long.parseLong(args[2]) : 5000000;
+        LoadTest loadTest = new LoadTest(config, numGames);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            double movesPerSecond = loadTest.run(threads, moves, 0);
+            System.out.printf("%s, %d games, %d threads: %.0f moves/s%n", config, numGames, threads, movesPerSecond);
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
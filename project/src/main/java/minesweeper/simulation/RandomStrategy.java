@@ -0,0 +1,55 @@
+package minesweeper.simulation;
+
+import java.util.random.RandomGenerator;
+
+import minesweeper.Board;
+import minesweeper.Tile;
+
+// Opens a random closed tile on every move. Gives a baseline win rate to compare
+// other strategies against
+public class RandomStrategy implements Strategy {
+    // Random picks to try before falling back to scanning the board
+    private static final int MAX_ATTEMPTS = 32;
+
+    public boolean makeMove(Board board, RandomGenerator random) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (isClosed(board.getTile(x, y))) {
+                board.openTile(x, y);
+                return true;
+            }
+        }
+
+        // Few closed tiles are left, so pick one of them from a scan of the board
+        int numClosed = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (isClosed(board.getTile(x, y))) {
+                    numClosed++;
+                }
+            }
+        }
+        if (numClosed == 0) {
+            return false;
+        }
+
+        int pick = random.nextInt(numClosed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (isClosed(board.getTile(x, y)) && pick-- == 0) {
+                    board.openTile(x, y);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClosed(Tile tile) {
+        return !tile.isOpen() && !tile.isFlagged();
+    }
+}
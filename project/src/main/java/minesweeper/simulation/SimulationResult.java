@@ -0,0 +1,78 @@
+package minesweeper.simulation;
+
+// Outcome of a batch of simulated games
+public class SimulationResult {
+    private final long games;
+    private final long wins;
+    private final long losses;
+    private final long moves;
+    private final long elapsedNanos;
+
+    public SimulationResult(long games, long wins, long losses, long moves, long elapsedNanos) {
+        this.games = games;
+        this.wins = wins;
+        this.losses = losses;
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Combines the counts of two batches. The elapsed time is taken from this one
+    SimulationResult add(SimulationResult other) {
+        return new SimulationResult(this.games + other.games, this.wins + other.wins, this.losses + other.losses,
+                this.moves + other.moves, this.elapsedNanos);
+    }
+
+    SimulationResult withElapsedNanos(long elapsedNanos) {
+        return new SimulationResult(this.games, this.wins, this.losses, this.moves, elapsedNanos);
+    }
+
+    public long getGames() {
+        return this.games;
+    }
+
+    public long getWins() {
+        return this.wins;
+    }
+
+    public long getLosses() {
+        return this.losses;
+    }
+
+    // Games the strategy gave up on before they were won or lost
+    public long getUnfinished() {
+        return this.games - this.wins - this.losses;
+    }
+
+    public long getMoves() {
+        return this.moves;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public double getWinRate() {
+        return this.games == 0 ? 0 : (double) this.wins / this.games;
+    }
+
+    // Half-width of the 95% confidence interval of the win rate (normal
+    // approximation)
+    public double getWinRateMargin() {
+        if (this.games == 0) {
+            return 0;
+        }
+        double winRate = this.getWinRate();
+        return 1.96 * Math.sqrt(winRate * (1 - winRate) / this.games);
+    }
+
+    public double getGamesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.games * 1e9 / this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games (%d won, %d lost, %d unfinished) in %.2f s: %.0f games/s, win rate %.2f%% ± %.2f%%",
+                this.games, this.wins, this.losses, this.getUnfinished(), this.elapsedNanos / 1e9,
+                this.getGamesPerSecond(), this.getWinRate() * 100, this.getWinRateMargin() * 100);
+    }
+}
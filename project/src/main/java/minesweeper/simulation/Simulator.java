@@ -0,0 +1,150 @@
+package minesweeper.simulation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+
+// Plays batches of games without the UI, split across the cores with a
+// ForkJoinPool. Game i of a batch starting at firstSeed uses the seed firstSeed + i
+// for both the bomb layout and the strategy, so results are reproducible no matter
+// how the games are split between threads. Each thread reuses one Board, which is
+// reset between games
+public class Simulator {
+    // Number of games played by a single task
+    private static final int GAMES_PER_TASK = 64;
+
+    private final BoardConfig config;
+    private final Supplier<? extends Strategy> strategyFactory;
+    private final ForkJoinPool pool;
+
+    public Simulator(BoardConfig config, Supplier<? extends Strategy> strategyFactory) {
+        this(config, strategyFactory, ForkJoinPool.commonPool());
+    }
+
+    public Simulator(BoardConfig config, Supplier<? extends Strategy> strategyFactory, ForkJoinPool pool) {
+        this.config = config;
+        this.strategyFactory = strategyFactory;
+        this.pool = pool;
+    }
+
+    // Plays the games with the seeds firstSeed to firstSeed + numGames - 1
+    public SimulationResult run(long firstSeed, long numGames) {
+        if (numGames < 0) {
+            throw new IllegalArgumentException("Number of games can't be negative");
+        }
+
+        long start = System.nanoTime();
+        Players players = new Players(this.config, this.strategyFactory);
+        SimulationResult result = this.pool.invoke(new GamesTask(players, firstSeed, numGames));
+        return result.withElapsedNanos(System.nanoTime() - start);
+    }
+
+    // A board and a strategy, used by one task at a time
+    private static class Player {
+        final Board board;
+        final Strategy strategy;
+
+        Player(Board board, Strategy strategy) {
+            this.board = board;
+            this.strategy = strategy;
+        }
+    }
+
+    // Players that are not in use by a task. A task only plays its games on one
+    // thread and never waits for another task, so no more players are created
+    // than there are threads in the pool
+    private static class Players {
+        private final BoardConfig config;
+        private final Supplier<? extends Strategy> strategyFactory;
+        private final ConcurrentLinkedQueue<Player> idle = new ConcurrentLinkedQueue<>();
+
+        Players(BoardConfig config, Supplier<? extends Strategy> strategyFactory) {
+            this.config = config;
+            this.strategyFactory = strategyFactory;
+        }
+
+        Player take() {
+            Player player = this.idle.poll();
+            return player != null ? player : new Player(this.config.createBoard(), this.strategyFactory.get());
+        }
+
+        void release(Player player) {
+            this.idle.offer(player);
+        }
+    }
+
+    private static class GamesTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final Players players;
+        private final long firstSeed;
+        private final long numGames;
+
+        GamesTask(Players players, long firstSeed, long numGames) {
+            this.players = players;
+            this.firstSeed = firstSeed;
+            this.numGames = numGames;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (this.numGames > GAMES_PER_TASK) {
+                long half = this.numGames / 2;
+                GamesTask first = new GamesTask(this.players, this.firstSeed, half);
+                GamesTask second = new GamesTask(this.players, this.firstSeed + half, this.numGames - half);
+                first.fork();
+                return second.compute().add(first.join());
+            }
+
+            Player player = this.players.take();
+            Board board = player.board;
+            Strategy strategy = player.strategy;
+            long wins = 0;
+            long losses = 0;
+            long moves = 0;
+
+            for (long seed = this.firstSeed; seed < this.firstSeed + this.numGames; seed++) {
+                board.reset(seed);
+                strategy.newGame(board);
+                SplittableRandom random = new SplittableRandom(~seed);
+
+                while (board.isGameActive() && strategy.makeMove(board, random)) {
+                    moves++;
+                }
+
+                if (board.hasWon()) {
+                    wins++;
+                } else if (board.isGameOver()) {
+                    losses++;
+                }
+            }
+
+            this.players.release(player);
+            return new SimulationResult(this.numGames, wins, losses, moves, 0);
+        }
+    }
+
+    // Runs a simulation from the command line:
+    // Simulator <easy|medium|hard|WxHxB> [games] [first seed] [threads]
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Simulator <easy|medium|hard|WxHxB> [games] [first seed] [threads]");
+            return;
+        }
+
+        BoardConfig config = BoardConfig.parse(args[0]);
+        long numGames = args.length > 1 ? Long.parseLong(args[1]) : 100000;
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Simulator simulator = new Simulator(config, RandomStrategy::new, pool);
+        System.out.println(config + " with " + threads + " threads: " + simulator.run(firstSeed, numGames));
+        pool.shutdown();
+    }
+}
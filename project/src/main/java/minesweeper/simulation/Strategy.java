@@ -0,0 +1,17 @@
+package minesweeper.simulation;
+
+import java.util.random.RandomGenerator;
+
+import minesweeper.Board;
+
+// A player for the simulator. Each simulator thread gets its own instance, which
+// plays one game at a time
+public interface Strategy {
+    // Makes one move (opening or flagging tiles) on a board with an active game.
+    // Returns false if the strategy has no move to make
+    boolean makeMove(Board board, RandomGenerator random);
+
+    // Called before each new game, for strategies that keep state between moves
+    default void newGame(Board board) {
+    }
+}
@@ -0,0 +1,234 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+
+// A group of closed frontier tiles linked by the open numbers around them. The
+// mine layouts of a component do not depend on the rest of the frontier, so each
+// one is counted on its own, once per number of mines, and the counts are kept
+// until a move changes the tiles or numbers of the component
+class FrontierComponent {
+    // Steps of the search before a component is treated as too large to count
+    // exactly, which keeps long frontiers from taking exponential time
+    private static final long MAX_SEARCH_STEPS = 1 << 22;
+
+    // Board indices of the tiles
+    final int[] tiles;
+
+    // For each constraint, the positions (in tiles) of its closed tiles and the
+    // mines among them
+    private final int[][] constraintTiles;
+    private final int[] constraintMines;
+    // For each tile, the constraints it is part of
+    private final int[][] tileConstraints;
+
+    // Number of layouts with k mines, and for each tile the number of those with a
+    // mine on it. Set by count()
+    double[] layouts;
+    private double[][] tileLayouts;
+    private boolean exact;
+    // Estimated mine probability of each tile, used when the component is too
+    // large to count exactly
+    private double[] estimates;
+
+    // Probability of a mine on each tile, set by the engine from the layouts of
+    // every component
+    final double[] probabilities;
+
+    // Set when a move has changed the component since it was counted
+    boolean stale;
+
+    FrontierComponent(int[] tiles, int[][] constraintTiles, int[] constraintMines) {
+        this.tiles = tiles;
+        this.constraintTiles = constraintTiles;
+        this.constraintMines = constraintMines;
+        this.probabilities = new double[tiles.length];
+
+        int[] numConstraints = new int[tiles.length];
+        for (int[] constraint : constraintTiles) {
+            for (int tile : constraint) {
+                numConstraints[tile]++;
+            }
+        }
+        this.tileConstraints = new int[tiles.length][];
+        for (int i = 0; i < tiles.length; i++) {
+            this.tileConstraints[i] = new int[numConstraints[i]];
+            numConstraints[i] = 0;
+        }
+        for (int c = 0; c < constraintTiles.length; c++) {
+            for (int tile : constraintTiles[c]) {
+                this.tileConstraints[tile][numConstraints[tile]++] = c;
+            }
+        }
+    }
+
+    int size() {
+        return this.tiles.length;
+    }
+
+    boolean isExact() {
+        return this.exact;
+    }
+
+    // Counts the mine layouts that satisfy every constraint
+    void count() {
+        Search search = new Search();
+        this.layouts = new double[this.size() + 1];
+        this.tileLayouts = new double[this.size()][this.size() + 1];
+        this.exact = search.run(0, 0);
+
+        if (!this.exact) {
+            this.estimate();
+        }
+        this.stale = false;
+    }
+
+    // Sets the probabilities from the weight of each number of mines in the
+    // component, given the layouts of the rest of the board
+    void setProbabilities(double[] weights) {
+        if (!this.exact) {
+            System.arraycopy(this.estimates, 0, this.probabilities, 0, this.size());
+            return;
+        }
+
+        double total = 0;
+        for (int k = 0; k < this.layouts.length; k++) {
+            total += this.layouts[k] * weights[k];
+        }
+        if (total == 0) {
+            // No layout fits the number of mines left, which happens with wrong
+            // flags. The layouts are then weighted equally
+            weights = new double[this.layouts.length];
+            Arrays.fill(weights, 1);
+            for (int k = 0; k < this.layouts.length; k++) {
+                total += this.layouts[k];
+            }
+        }
+
+        for (int i = 0; i < this.size(); i++) {
+            double mines = 0;
+            for (int k = 0; k < this.layouts.length; k++) {
+                mines += this.tileLayouts[i][k] * weights[k];
+            }
+            this.probabilities[i] = total > 0 ? mines / total : 0;
+        }
+    }
+
+    // Estimates each tile from the density of mines in its constraints, and counts
+    // the component as a single layout with the expected number of mines
+    private void estimate() {
+        this.estimates = new double[this.size()];
+        double expectedMines = 0;
+        for (int i = 0; i < this.size(); i++) {
+            for (int c : this.tileConstraints[i]) {
+                double density = (double) this.constraintMines[c] / this.constraintTiles[c].length;
+                this.estimates[i] = Math.max(this.estimates[i], density);
+            }
+            expectedMines += this.estimates[i];
+        }
+
+        this.layouts = new double[this.size() + 1];
+        this.layouts[(int) Math.round(expectedMines)] = 1;
+        this.tileLayouts = null;
+    }
+
+    // Depth-first search over the tiles in breadth-first order, so that the
+    // constraints of a tile are completed soon after it is assigned and dead ends
+    // are cut early
+    private class Search {
+        private final int[] order;
+        private final boolean[] mine;
+        private final int[] minesLeft;
+        private final int[] tilesLeft;
+        private long steps;
+
+        Search() {
+            this.order = breadthFirstOrder();
+            this.mine = new boolean[size()];
+            this.minesLeft = constraintMines.clone();
+            this.tilesLeft = new int[constraintTiles.length];
+            for (int c = 0; c < constraintTiles.length; c++) {
+                this.tilesLeft[c] = constraintTiles[c].length;
+            }
+        }
+
+        // Returns false if the search ran out of steps
+        boolean run(int depth, int mines) {
+            if (++this.steps > MAX_SEARCH_STEPS) {
+                return false;
+            }
+            if (depth == this.order.length) {
+                layouts[mines]++;
+                for (int i = 0; i < this.mine.length; i++) {
+                    if (this.mine[i]) {
+                        tileLayouts[i][mines]++;
+                    }
+                }
+                return true;
+            }
+
+            int tile = this.order[depth];
+            for (int value = 0; value <= 1; value++) {
+                if (this.assign(tile, value)) {
+                    this.mine[tile] = value == 1;
+                    boolean completed = this.run(depth + 1, mines + value);
+                    this.mine[tile] = false;
+                    this.unassign(tile, value);
+                    if (!completed) {
+                        return false;
+                    }
+                } else {
+                    this.unassign(tile, value);
+                }
+            }
+            return true;
+        }
+
+        // Assigns a tile and returns whether its constraints can still be met
+        private boolean assign(int tile, int value) {
+            boolean possible = true;
+            for (int c : tileConstraints[tile]) {
+                this.tilesLeft[c]--;
+                this.minesLeft[c] -= value;
+                if (this.minesLeft[c] < 0 || this.minesLeft[c] > this.tilesLeft[c]) {
+                    possible = false;
+                }
+            }
+            return possible;
+        }
+
+        private void unassign(int tile, int value) {
+            for (int c : tileConstraints[tile]) {
+                this.tilesLeft[c]++;
+                this.minesLeft[c] += value;
+            }
+        }
+
+        private int[] breadthFirstOrder() {
+            int[] order = new int[size()];
+            boolean[] visited = new boolean[size()];
+            int head = 0;
+            int tail = 0;
+
+            for (int start = 0; start < size(); start++) {
+                if (visited[start]) {
+                    continue;
+                }
+                visited[start] = true;
+                order[tail++] = start;
+
+                while (head < tail) {
+                    int tile = order[head++];
+                    for (int c : tileConstraints[tile]) {
+                        for (int next : constraintTiles[c]) {
+                            if (!visited[next]) {
+                                visited[next] = true;
+                                order[tail++] = next;
+                            }
+                        }
+                    }
+                }
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+
+// Finds bomb layouts that can be cleared without guessing. A layout is fixed by
+// the seed of the board and the first opened tile, so candidate seeds are played
+// out with the solver from the first click, and the first seed it clears
+// completely is used for the real board (see Board.setSeed). Candidates are tried
+// in parallel, with one board and solver per thread that are reset between
+// attempts, up to a fixed number of attempts
+public class NoGuessGenerator {
+    // Attempts before giving up. Around 1 in 10 random expert layouts can be
+    // cleared from the middle without guessing
+    public static final int DEFAULT_MAX_ATTEMPTS = 5000;
+
+    private final ForkJoinPool pool;
+    private final int maxAttempts;
+
+    public NoGuessGenerator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public NoGuessGenerator(ForkJoinPool pool, int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Number of attempts must be positive");
+        }
+        this.pool = pool;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Returns the first of the seeds baseSeed, baseSeed + 1, ... that gives a
+    // layout the solver clears from the given first click, or an empty result if
+    // none of the attempts did. The result does not depend on the number of threads
+    public OptionalLong findSeed(BoardConfig config, int firstX, int firstY, long baseSeed) {
+        return this.findSeed(config.getWidth(), config.getHeight(), config.getNumBombs(), firstX, firstY, baseSeed);
+    }
+
+    public OptionalLong findSeed(int width, int height, int numBombs, int firstX, int firstY, long baseSeed) {
+        if (firstX < 0 || firstY < 0 || firstX >= width || firstY >= height) {
+            throw new IllegalArgumentException("First click must be inside the board");
+        }
+
+        AtomicLong nextAttempt = new AtomicLong();
+        AtomicLong firstSolved = new AtomicLong(Long.MAX_VALUE);
+
+        // Each thread takes the next attempt until one is solved. Attempts below
+        // the first solved one are always finished, so the lowest solved attempt
+        // is found no matter how they are spread over the threads
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < this.pool.getParallelism(); i++) {
+            workers.add(() -> {
+                Board board = new Board(width, height, numBombs);
+                Solver solver = new Solver(board);
+
+                long attempt;
+                while ((attempt = nextAttempt.getAndIncrement()) < this.maxAttempts
+                        && attempt < firstSolved.get()) {
+                    if (isSolvable(board, solver, baseSeed + attempt, firstX, firstY)) {
+                        firstSolved.accumulateAndGet(attempt, Math::min);
+                    }
+                }
+                return null;
+            });
+        }
+        this.pool.invokeAll(workers);
+
+        long attempt = firstSolved.get();
+        return attempt == Long.MAX_VALUE ? OptionalLong.empty() : OptionalLong.of(baseSeed + attempt);
+    }
+
+    // Plays a seeded layout with the solver, reusing the board and solver
+    private static boolean isSolvable(Board board, Solver solver, long seed, int firstX, int firstY) {
+        board.reset(seed);
+        solver.reset();
+        board.openTile(firstX, firstY);
+        solver.solve();
+        return board.hasWon();
+    }
+}
@@ -0,0 +1,573 @@
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import minesweeper.Board;
+import minesweeper.BoardListener;
+
+// Gives the probability of a mine on every closed tile, for when the solver has
+// nothing certain left. Like the solver it works from a copy of the visible
+// state, updated as the board reports changed tiles.
+//
+// The closed tiles next to open numbers (the frontier) are split into
+// independent components. The mine layouts of each component are counted for
+// every number of mines, with the components counted in parallel on a fork-join
+// pool. Components are kept between updates, and only those with tiles around a
+// changed tile are counted again. The counts are then combined, weighting each
+// total number of mines on the frontier by the number of ways to place the
+// remaining mines on the closed tiles away from the frontier (the interior).
+// Those binomial weights are far too large for a double on big boards, so they
+// are calculated as logarithms
+public class ProbabilityEngine implements BoardListener {
+    // Logarithms of n! for small n
+    private static final double[] LOG_FACTORIALS = new double[1024];
+
+    static {
+        for (int n = 2; n < LOG_FACTORIALS.length; n++) {
+            LOG_FACTORIALS[n] = LOG_FACTORIALS[n - 1] + Math.log(n);
+        }
+    }
+
+    private final Board board;
+    private final int width;
+    private final int height;
+    private final ForkJoinPool pool;
+    private final byte[] visible;
+    private int closedTiles;
+    private int knownMines;
+
+    // Open tiles with closed neighbours, kept as an indexed set so members can be
+    // added and removed in constant time
+    private final int[] constraints;
+    private final int[] constraintPosition;
+    private int numConstraints;
+
+    // Components of the last update, and for each frontier tile its component and
+    // position in it
+    private List<FrontierComponent> components = new ArrayList<>();
+    private final int[] componentOf;
+    private final int[] positionOf;
+    // Scratch space for numbering the frontier tiles, -1 outside of an update
+    private final int[] frontierId;
+    private double interiorProbability;
+    private long componentsCounted;
+
+    public ProbabilityEngine(Board board) {
+        this(board, ForkJoinPool.commonPool());
+    }
+
+    public ProbabilityEngine(Board board, ForkJoinPool pool) {
+        this.board = board;
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.pool = pool;
+
+        int numTiles = this.width * this.height;
+        this.visible = new byte[numTiles];
+        this.constraints = new int[numTiles];
+        this.constraintPosition = new int[numTiles];
+        this.componentOf = new int[numTiles];
+        this.positionOf = new int[numTiles];
+        this.frontierId = new int[numTiles];
+        Arrays.fill(this.frontierId, -1);
+
+        this.reset();
+        board.addListener(this);
+    }
+
+    public Board getBoard() {
+        return this.board;
+    }
+
+    // Stops following the board
+    public void detach() {
+        this.board.removeListener(this);
+    }
+
+    // Reads the whole board again and drops all components. Needed after
+    // Board.reset or any other change that the board does not report to its
+    // listeners
+    public void reset() {
+        this.closedTiles = 0;
+        this.knownMines = 0;
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                byte state = Solver.readTile(this.board, x, y);
+                this.visible[y * this.width + x] = state;
+                this.countTile(state, 1);
+            }
+        }
+
+        this.numConstraints = 0;
+        Arrays.fill(this.constraintPosition, -1);
+        Arrays.fill(this.componentOf, -1);
+        for (int index = 0; index < this.visible.length; index++) {
+            this.updateConstraint(index);
+        }
+
+        this.components = new ArrayList<>();
+        this.interiorProbability = 0;
+    }
+
+    // Calculates the probabilities for the current state of the board, counting
+    // only the components that changed since the last update
+    public void update() {
+        List<FrontierComponent> previous = this.components;
+        List<FrontierComponent> current = this.findComponents(previous);
+
+        List<FrontierComponent> toCount = new ArrayList<>();
+        for (FrontierComponent component : current) {
+            if (component.layouts == null) {
+                toCount.add(component);
+            }
+        }
+        if (!toCount.isEmpty()) {
+            this.pool.invoke(new CountTask(toCount, 0, toCount.size()));
+            this.componentsCounted += toCount.size();
+        }
+
+        // Points the frontier tiles to their new components
+        for (FrontierComponent component : previous) {
+            for (int tile : component.tiles) {
+                this.componentOf[tile] = -1;
+            }
+        }
+        for (int c = 0; c < current.size(); c++) {
+            int[] tiles = current.get(c).tiles;
+            for (int i = 0; i < tiles.length; i++) {
+                this.componentOf[tiles[i]] = c;
+                this.positionOf[tiles[i]] = i;
+            }
+        }
+
+        this.components = current;
+        this.combine();
+    }
+
+    // Probability of a mine on a tile as of the last update. Open tiles are 0 and
+    // flagged tiles 1
+    public double getMineProbability(int x, int y) {
+        int index = y * this.width + x;
+        if (this.visible[index] == Solver.MINE) {
+            return 1;
+        }
+        if (this.visible[index] != Solver.CLOSED) {
+            return 0;
+        }
+
+        int component = this.componentOf[index];
+        if (component < 0) {
+            return this.interiorProbability;
+        }
+        return this.components.get(component).probabilities[this.positionOf[index]];
+    }
+
+    // Returns the board index (y * width + x) of the closed tile least likely to
+    // hold a mine as of the last update, or -1 if there are no closed tiles
+    public int findSafestTile() {
+        int safest = -1;
+        double lowest = 2;
+        for (FrontierComponent component : this.components) {
+            for (int i = 0; i < component.size(); i++) {
+                if (component.probabilities[i] < lowest) {
+                    lowest = component.probabilities[i];
+                    safest = component.tiles[i];
+                }
+            }
+        }
+
+        if (this.closedTiles > this.getFrontierSize() && this.interiorProbability < lowest) {
+            for (int index = 0; index < this.visible.length; index++) {
+                if (this.visible[index] == Solver.CLOSED && this.componentOf[index] < 0) {
+                    return index;
+                }
+            }
+        }
+        return safest;
+    }
+
+    public int getComponentCount() {
+        return this.components.size();
+    }
+
+    // Total number of components counted since the engine was created, for
+    // telling how many were reused
+    public long getComponentsCounted() {
+        return this.componentsCounted;
+    }
+
+    // Updates the copy of a changed tile. The components around it are marked
+    // stale, and the open tiles around it may have gained or lost closed
+    // neighbours
+    @Override
+    public void tileChanged(int x, int y) {
+        int index = y * this.width + x;
+        byte state = Solver.readTile(this.board, x, y);
+        this.countTile(this.visible[index], -1);
+        this.countTile(state, 1);
+        this.visible[index] = state;
+
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                int neighbour = j * this.width + i;
+                if (this.componentOf[neighbour] >= 0) {
+                    this.components.get(this.componentOf[neighbour]).stale = true;
+                }
+                this.updateConstraint(neighbour);
+            }
+        }
+    }
+
+    private void countTile(byte state, int sign) {
+        if (state == Solver.CLOSED) {
+            this.closedTiles += sign;
+        } else if (state == Solver.MINE) {
+            this.knownMines += sign;
+        }
+    }
+
+    // Adds an open tile to the constraints if it has closed neighbours, and
+    // removes it otherwise
+    private void updateConstraint(int index) {
+        boolean isConstraint = this.visible[index] >= 0 && this.countClosedNeighbours(index) > 0;
+        int position = this.constraintPosition[index];
+
+        if (isConstraint && position < 0) {
+            this.constraints[this.numConstraints] = index;
+            this.constraintPosition[index] = this.numConstraints++;
+        } else if (!isConstraint && position >= 0) {
+            int last = this.constraints[--this.numConstraints];
+            this.constraints[position] = last;
+            this.constraintPosition[last] = position;
+            this.constraintPosition[index] = -1;
+        }
+    }
+
+    private int countClosedNeighbours(int index) {
+        int x = index % this.width;
+        int y = index / this.width;
+        int closed = 0;
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                if (this.visible[j * this.width + i] == Solver.CLOSED) {
+                    closed++;
+                }
+            }
+        }
+        return closed;
+    }
+
+    private int getFrontierSize() {
+        int size = 0;
+        for (FrontierComponent component : this.components) {
+            size += component.size();
+        }
+        return size;
+    }
+
+    // Splits the frontier into components with union-find over the tiles of each
+    // constraint. A component with the same tiles as one from the last update,
+    // which has not been marked stale since, is reused as it is
+    private List<FrontierComponent> findComponents(List<FrontierComponent> previous) {
+        // Frontier tiles get ids in the order they are found
+        int[] frontier = new int[16];
+        int[] parent = new int[16];
+        int numTiles = 0;
+        int[] firstTileOf = new int[this.numConstraints];
+
+        for (int c = 0; c < this.numConstraints; c++) {
+            int index = this.constraints[c];
+            int x = index % this.width;
+            int y = index / this.width;
+            firstTileOf[c] = -1;
+
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+                for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                    int tile = j * this.width + i;
+                    if (this.visible[tile] != Solver.CLOSED) {
+                        continue;
+                    }
+
+                    if (this.frontierId[tile] < 0) {
+                        if (numTiles == frontier.length) {
+                            frontier = Arrays.copyOf(frontier, numTiles * 2);
+                            parent = Arrays.copyOf(parent, numTiles * 2);
+                        }
+                        frontier[numTiles] = tile;
+                        parent[numTiles] = numTiles;
+                        this.frontierId[tile] = numTiles++;
+                    }
+
+                    if (firstTileOf[c] < 0) {
+                        firstTileOf[c] = this.frontierId[tile];
+                    } else {
+                        union(parent, firstTileOf[c], this.frontierId[tile]);
+                    }
+                }
+            }
+        }
+
+        // Numbers the components and the tiles within them
+        int[] componentOfRoot = new int[numTiles];
+        Arrays.fill(componentOfRoot, -1);
+        int[] position = new int[numTiles];
+        int[] sizes = new int[numTiles];
+        int numComponents = 0;
+        for (int id = 0; id < numTiles; id++) {
+            int root = find(parent, id);
+            if (componentOfRoot[root] < 0) {
+                componentOfRoot[root] = numComponents++;
+            }
+            position[id] = sizes[componentOfRoot[root]]++;
+        }
+
+        int[][] tiles = new int[numComponents][];
+        int[] numComponentConstraints = new int[numComponents];
+        for (int k = 0; k < numComponents; k++) {
+            tiles[k] = new int[sizes[k]];
+        }
+        for (int id = 0; id < numTiles; id++) {
+            tiles[componentOfRoot[find(parent, id)]][position[id]] = frontier[id];
+        }
+        for (int c = 0; c < this.numConstraints; c++) {
+            numComponentConstraints[componentOfRoot[find(parent, firstTileOf[c])]]++;
+        }
+
+        // Reuses the components that are unchanged since the last update
+        List<FrontierComponent> current = new ArrayList<>(numComponents);
+        boolean[] reused = new boolean[numComponents];
+        for (int k = 0; k < numComponents; k++) {
+            FrontierComponent component = this.findUnchanged(previous, tiles[k]);
+            current.add(component);
+            reused[k] = component != null;
+        }
+
+        // Builds the constraints of the other components, with their tiles given
+        // as positions in the component
+        int[][][] constraintTiles = new int[numComponents][][];
+        int[][] constraintMines = new int[numComponents][];
+        for (int k = 0; k < numComponents; k++) {
+            if (!reused[k]) {
+                constraintTiles[k] = new int[numComponentConstraints[k]][];
+                constraintMines[k] = new int[numComponentConstraints[k]];
+                numComponentConstraints[k] = 0;
+            }
+        }
+        int[] constraintTile = new int[8];
+        for (int c = 0; c < this.numConstraints; c++) {
+            int k = componentOfRoot[find(parent, firstTileOf[c])];
+            if (reused[k]) {
+                continue;
+            }
+
+            int index = this.constraints[c];
+            int x = index % this.width;
+            int y = index / this.width;
+            int size = 0;
+            int mines = this.visible[index];
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+                for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                    int tile = j * this.width + i;
+                    if (this.visible[tile] == Solver.CLOSED) {
+                        constraintTile[size++] = position[this.frontierId[tile]];
+                    } else if (this.visible[tile] == Solver.MINE) {
+                        mines--;
+                    }
+                }
+            }
+
+            constraintTiles[k][numComponentConstraints[k]] = Arrays.copyOf(constraintTile, size);
+            constraintMines[k][numComponentConstraints[k]++] = mines;
+        }
+        for (int k = 0; k < numComponents; k++) {
+            if (!reused[k]) {
+                current.set(k, new FrontierComponent(tiles[k], constraintTiles[k], constraintMines[k]));
+            }
+        }
+
+        for (int id = 0; id < numTiles; id++) {
+            this.frontierId[frontier[id]] = -1;
+        }
+        return current;
+    }
+
+    // Returns the component from the last update with exactly the given tiles, if
+    // it has not changed since
+    private FrontierComponent findUnchanged(List<FrontierComponent> previous, int[] tiles) {
+        int old = this.componentOf[tiles[0]];
+        if (old < 0) {
+            return null;
+        }
+
+        FrontierComponent component = previous.get(old);
+        if (component.stale || component.size() != tiles.length) {
+            return null;
+        }
+        for (int tile : tiles) {
+            if (this.componentOf[tile] != old) {
+                return null;
+            }
+        }
+        return component;
+    }
+
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    // Combines the layout counts of the components into probabilities. For each
+    // component, every number of mines k in it is weighted by the layouts of the
+    // other components and the interior with the remaining mines. Those weights
+    // are built from the partial sums over the components before it (prefix) and
+    // after it (suffix), so the work grows with the number of components rather
+    // than with its square. All arrays are scaled to a maximum of 1 as they are
+    // built, as only the ratios within each array matter
+    private void combine() {
+        int numComponents = this.components.size();
+        int minesLeft = Math.max(this.board.getNumBombs() - this.knownMines, 0);
+        int[] tilesBefore = new int[numComponents + 1];
+        for (int i = 0; i < numComponents; i++) {
+            tilesBefore[i + 1] = tilesBefore[i] + this.components.get(i).size();
+        }
+        int interior = this.closedTiles - tilesBefore[numComponents];
+        int maxMines = Math.min(tilesBefore[numComponents], minesLeft);
+
+        // Ways to place the mines left in the interior, by the number of mines on
+        // the frontier
+        double[] logWeights = new double[maxMines + 1];
+        double maxLogWeight = Double.NEGATIVE_INFINITY;
+        for (int mines = 0; mines <= maxMines; mines++) {
+            logWeights[mines] = logBinomial(interior, minesLeft - mines);
+            maxLogWeight = Math.max(maxLogWeight, logWeights[mines]);
+        }
+        double[] weights = new double[maxMines + 1];
+        for (int mines = 0; mines <= maxMines; mines++) {
+            weights[mines] = Math.exp(logWeights[mines] - maxLogWeight);
+        }
+
+        // suffix[i][m] is the weight of m mines in the components before i, summed
+        // over the layouts of component i and the ones after it
+        double[][] suffix = new double[numComponents + 1][];
+        suffix[numComponents] = weights;
+        for (int i = numComponents - 1; i >= 0; i--) {
+            double[] layouts = this.components.get(i).layouts;
+            double[] next = suffix[i + 1];
+            double[] sums = new double[Math.min(tilesBefore[i], maxMines) + 1];
+            for (int mines = 0; mines < sums.length; mines++) {
+                for (int k = 0; k < layouts.length && mines + k < next.length; k++) {
+                    sums[mines] += layouts[k] * next[mines + k];
+                }
+            }
+            suffix[i] = scale(sums);
+        }
+
+        // prefix[m] is the number of layouts with m mines in the components before
+        // the current one
+        double[] prefix = { 1 };
+        for (int i = 0; i < numComponents; i++) {
+            FrontierComponent component = this.components.get(i);
+            double[] next = suffix[i + 1];
+            double[] componentWeights = new double[component.size() + 1];
+            for (int k = 0; k < componentWeights.length; k++) {
+                for (int mines = 0; mines < prefix.length && mines + k < next.length; mines++) {
+                    componentWeights[k] += prefix[mines] * next[mines + k];
+                }
+            }
+            component.setProbabilities(componentWeights);
+
+            double[] sums = new double[Math.min(tilesBefore[i + 1], maxMines) + 1];
+            for (int mines = 0; mines < prefix.length; mines++) {
+                for (int k = 0; k < component.layouts.length && mines + k < sums.length; k++) {
+                    sums[mines + k] += prefix[mines] * component.layouts[k];
+                }
+            }
+            prefix = scale(sums);
+        }
+
+        // Expected number of mines in the interior, spread evenly over its tiles
+        double total = 0;
+        double interiorMines = 0;
+        for (int mines = 0; mines < prefix.length; mines++) {
+            double weight = prefix[mines] * weights[mines];
+            total += weight;
+            interiorMines += weight * (minesLeft - mines);
+        }
+        if (interior <= 0) {
+            this.interiorProbability = 0;
+        } else if (total > 0) {
+            this.interiorProbability = interiorMines / total / interior;
+        } else {
+            this.interiorProbability = Math.min((double) minesLeft / interior, 1);
+        }
+    }
+
+    private static double[] scale(double[] values) {
+        double max = 0;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        if (max > 0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= max;
+            }
+        }
+        return values;
+    }
+
+    // Natural logarithm of n choose k
+    static double logBinomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    // Natural logarithm of n!, from a table for small n and Stirling's series
+    // above it
+    static double logFactorial(int n) {
+        if (n < LOG_FACTORIALS.length) {
+            return LOG_FACTORIALS[n];
+        }
+        double x = n;
+        return (x + 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI) + 1 / (12 * x) - 1 / (360 * x * x * x);
+    }
+
+    // Counts a range of components, splitting it between the threads of the pool
+    private static class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<FrontierComponent> components;
+        private final int from;
+        private final int to;
+
+        CountTask(List<FrontierComponent> components, int from, int to) {
+            this.components = components;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.components.get(this.from).count();
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new CountTask(this.components, this.from, middle),
+                    new CountTask(this.components, middle, this.to));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package minesweeper.solver;
+
+import java.util.random.RandomGenerator;
+
+import minesweeper.Board;
+import minesweeper.simulation.Strategy;
+
+// Plays the moves the solver finds, starting in the middle of the board, and
+// opens the tile least likely to be a mine whenever nothing is certain
+public class ProbabilityStrategy implements Strategy {
+    private Solver solver;
+    private ProbabilityEngine engine;
+
+    @Override
+    public void newGame(Board board) {
+        if (this.solver == null || this.solver.getBoard() != board) {
+            if (this.solver != null) {
+                this.solver.detach();
+                this.engine.detach();
+            }
+            this.solver = new Solver(board);
+            this.engine = new ProbabilityEngine(board);
+        } else {
+            this.solver.reset();
+            this.engine.reset();
+        }
+    }
+
+    @Override
+    public boolean makeMove(Board board, RandomGenerator random) {
+        if (!board.isBombLayoutGenerated()) {
+            board.openTile(board.getWidth() / 2, board.getHeight() / 2);
+            return true;
+        }
+        if (this.solver.step()) {
+            return true;
+        }
+
+        this.engine.update();
+        int tile = this.engine.findSafestTile();
+        if (tile < 0) {
+            return false;
+        }
+        board.openTile(tile % board.getWidth(), tile / board.getWidth());
+        return true;
+    }
+}
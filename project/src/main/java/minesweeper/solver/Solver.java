@@ -0,0 +1,303 @@
+package minesweeper.solver;
+
+import minesweeper.Board;
+import minesweeper.BoardListener;
+import minesweeper.Tile;
+
+// Finds tiles that are certain to be safe or to be mines from the numbers on the
+// open tiles, and plays them on the board with openTile and flagTile. Only what a
+// player can see is used: the solver keeps its own copy of the visible state,
+// updated as the board reports changed tiles, along with a queue of the open tiles
+// whose surroundings changed. Each move therefore only costs work around the
+// tiles it changed, no matter the size of the board.
+//
+// Every open number gives a constraint: its closed neighbours hold the number
+// minus its flagged neighbours in mines. A constraint is solved on its own when
+// it has no mines left or as many mines as closed neighbours, and otherwise
+// compared with the constraints of the open tiles up to two tiles away, which
+// solves subset patterns like 1-1 and 1-2 along a wall
+public class Solver implements BoardListener {
+    // Visible state of a tile in the copy: closed and unflagged, a known mine (a
+    // flag or an exploded bomb), or else the number on an open tile
+    static final byte CLOSED = -1;
+    static final byte MINE = -2;
+
+    private final Board board;
+    private final int width;
+    private final int height;
+    private final byte[] visible;
+
+    // Open tiles to look at again, each queued at most once. Since a tile is
+    // only queued once, a ring buffer of one slot per tile never overflows
+    private final int[] queue;
+    private final boolean[] queued;
+    private int queueHead;
+    private int queueSize;
+
+    // Reusable constraints for the tiles being compared
+    private final Constraint first = new Constraint();
+    private final Constraint second = new Constraint();
+
+    // Tiles found by the last deduction
+    private final int[] safeTiles = new int[16];
+    private final int[] mineTiles = new int[16];
+    private int numSafeTiles;
+    private int numMineTiles;
+
+    private long tilesOpened;
+    private long tilesFlagged;
+
+    public Solver(Board board) {
+        this.board = board;
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.visible = new byte[this.width * this.height];
+        this.queue = new int[this.width * this.height];
+        this.queued = new boolean[this.width * this.height];
+
+        this.reset();
+        board.addListener(this);
+    }
+
+    public Board getBoard() {
+        return this.board;
+    }
+
+    // Stops following the board
+    public void detach() {
+        this.board.removeListener(this);
+    }
+
+    // Reads the whole board again. Needed after Board.reset or any other change
+    // that the board does not report to its listeners
+    public void reset() {
+        this.queueHead = 0;
+        this.queueSize = 0;
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                int index = y * this.width + x;
+                this.visible[index] = readTile(this.board, x, y);
+                this.queued[index] = false;
+                if (this.visible[index] >= 0) {
+                    this.enqueue(index);
+                }
+            }
+        }
+    }
+
+    // Makes the moves from the next deduction that can be made. Returns false if
+    // there is nothing left that is certain, or the game is over
+    public boolean step() {
+        while (this.queueSize > 0 && this.board.isGameActive()) {
+            int index = this.queue[this.queueHead];
+            this.queueHead = (this.queueHead + 1) % this.queue.length;
+            this.queueSize--;
+            this.queued[index] = false;
+
+            if (this.deduce(index % this.width, index / this.width)) {
+                // The deduction may only have solved tiles of another constraint, away
+                // from this tile, and its remaining comparisons were not made. The tile
+                // is queued again, while the open tiles around the solved tiles are
+                // queued as the board reports them
+                this.enqueue(index);
+                this.applyMoves();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Makes moves until nothing more is certain, and returns the number of steps
+    // taken
+    public int solve() {
+        int steps = 0;
+        while (this.step()) {
+            steps++;
+        }
+        return steps;
+    }
+
+    public long getTilesOpened() {
+        return this.tilesOpened;
+    }
+
+    public long getTilesFlagged() {
+        return this.tilesFlagged;
+    }
+
+    // Updates the copy of a changed tile and queues the open tiles next to it,
+    // whose constraints may have changed. Neighbours that are opened later in the
+    // same move are reported, and queued, on their own
+    @Override
+    public void tileChanged(int x, int y) {
+        this.visible[y * this.width + x] = readTile(this.board, x, y);
+
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                int index = j * this.width + i;
+                if (this.visible[index] >= 0 && !this.queued[index]) {
+                    this.enqueue(index);
+                }
+            }
+        }
+    }
+
+    // Reads the visible state of a tile, as stored in the copy
+    static byte readTile(Board board, int x, int y) {
+        Tile tile = board.getTile(x, y);
+        if (tile.isOpen()) {
+            return tile.isBomb() ? MINE : (byte) tile.getBombsAround();
+        }
+        return tile.isFlagged() ? MINE : CLOSED;
+    }
+
+    private void enqueue(int index) {
+        this.queue[(this.queueHead + this.queueSize) % this.queue.length] = index;
+        this.queueSize++;
+        this.queued[index] = true;
+    }
+
+    // Looks for safe tiles and mines around an open tile, first from its own
+    // constraint and then by comparing it with the open tiles around it
+    private boolean deduce(int x, int y) {
+        this.numSafeTiles = 0;
+        this.numMineTiles = 0;
+
+        if (!this.load(this.first, x, y)) {
+            return false;
+        }
+        if (this.first.mines == 0) {
+            this.addSafe(this.first, null);
+            return true;
+        }
+        if (this.first.mines == this.first.size) {
+            this.addMines(this.first, null);
+            return true;
+        }
+
+        for (int j = Math.max(y - 2, 0); j <= Math.min(y + 2, this.height - 1); j++) {
+            for (int i = Math.max(x - 2, 0); i <= Math.min(x + 2, this.width - 1); i++) {
+                if ((i != x || j != y) && this.load(this.second, i, j) && this.comparePair(this.first, this.second)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Compares two overlapping constraints. The mines shared by both are bounded by
+    // the size of the overlap and by the mines each needs outside it, which in turn
+    // bounds the mines in the tiles that only one of them covers
+    private boolean comparePair(Constraint a, Constraint b) {
+        int shared = 0;
+        for (int i = 0; i < a.size; i++) {
+            if (b.contains(a.tiles[i])) {
+                shared++;
+            }
+        }
+        if (shared == 0) {
+            return false;
+        }
+
+        int onlyA = a.size - shared;
+        int onlyB = b.size - shared;
+        int minShared = Math.max(0, Math.max(a.mines - onlyA, b.mines - onlyB));
+        int maxShared = Math.min(shared, Math.min(a.mines, b.mines));
+
+        if (onlyA > 0) {
+            if (a.mines - minShared == 0) {
+                this.addSafe(a, b);
+            } else if (a.mines - maxShared == onlyA) {
+                this.addMines(a, b);
+            }
+        }
+        if (onlyB > 0) {
+            if (b.mines - minShared == 0) {
+                this.addSafe(b, a);
+            } else if (b.mines - maxShared == onlyB) {
+                this.addMines(b, a);
+            }
+        }
+        return this.numSafeTiles > 0 || this.numMineTiles > 0;
+    }
+
+    // Adds the tiles of a constraint that are not covered by another (if given) as
+    // safe tiles
+    private void addSafe(Constraint constraint, Constraint except) {
+        for (int i = 0; i < constraint.size; i++) {
+            if (except == null || !except.contains(constraint.tiles[i])) {
+                this.safeTiles[this.numSafeTiles++] = constraint.tiles[i];
+            }
+        }
+    }
+
+    // Adds the tiles of a constraint that are not covered by another (if given) as
+    // mines
+    private void addMines(Constraint constraint, Constraint except) {
+        for (int i = 0; i < constraint.size; i++) {
+            if (except == null || !except.contains(constraint.tiles[i])) {
+                this.mineTiles[this.numMineTiles++] = constraint.tiles[i];
+            }
+        }
+    }
+
+    // Flags the mines before opening the safe tiles. The copy is updated as the
+    // moves are made, so tiles already opened by an earlier cascade are skipped
+    private void applyMoves() {
+        for (int i = 0; i < this.numMineTiles; i++) {
+            int index = this.mineTiles[i];
+            if (this.visible[index] == CLOSED) {
+                this.board.flagTile(index % this.width, index / this.width);
+                this.tilesFlagged++;
+            }
+        }
+        for (int i = 0; i < this.numSafeTiles && this.board.isGameActive(); i++) {
+            int index = this.safeTiles[i];
+            if (this.visible[index] == CLOSED) {
+                this.board.openTile(index % this.width, index / this.width);
+                this.tilesOpened++;
+            }
+        }
+    }
+
+    // Fills a constraint from an open tile. Returns false if the tile is not open
+    // or has no closed neighbours
+    private boolean load(Constraint constraint, int x, int y) {
+        int number = this.visible[y * this.width + x];
+        if (number < 0) {
+            return false;
+        }
+
+        constraint.size = 0;
+        constraint.mines = number;
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, this.height - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, this.width - 1); i++) {
+                int index = j * this.width + i;
+                if (this.visible[index] == CLOSED) {
+                    constraint.tiles[constraint.size++] = index;
+                } else if (this.visible[index] == MINE) {
+                    constraint.mines--;
+                }
+            }
+        }
+        // Wrong flags can leave a number with too few or too many mines around it,
+        // which gives nothing certain
+        return constraint.size > 0 && constraint.mines >= 0 && constraint.mines <= constraint.size;
+    }
+
+    // The closed neighbours of an open number, and how many mines they hold
+    private static class Constraint {
+        final int[] tiles = new int[8];
+        int size;
+        int mines;
+
+        boolean contains(int tile) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.tiles[i] == tile) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package minesweeper.solver;
+
+import java.util.random.RandomGenerator;
+
+import minesweeper.Board;
+import minesweeper.simulation.RandomStrategy;
+import minesweeper.simulation.Strategy;
+
+// Plays the moves the solver finds, starting in the middle of the board and
+// guessing a random closed tile whenever nothing is certain
+public class SolverStrategy implements Strategy {
+    private final Strategy guesser = new RandomStrategy();
+    private Solver solver;
+
+    @Override
+    public void newGame(Board board) {
+        if (this.solver == null || this.solver.getBoard() != board) {
+            if (this.solver != null) {
+                this.solver.detach();
+            }
+            this.solver = new Solver(board);
+        } else {
+            this.solver.reset();
+        }
+    }
+
+    @Override
+    public boolean makeMove(Board board, RandomGenerator random) {
+        if (!board.isBombLayoutGenerated()) {
+            board.openTile(board.getWidth() / 2, board.getHeight() / 2);
+            return true;
+        }
+        return this.solver.step() || this.guesser.makeMove(board, random);
+    }
+}
@@ -0,0 +1,114 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BitBoardTest {
+    @Test
+    @DisplayName("Testing that a bit board plays like a board")
+    public void testSameAsBoard() {
+        // Widths below, at and across word boundaries
+        int[][] sizes = { { 9, 9, 10 }, { 64, 20, 150 }, { 130, 70, 1500 } };
+        for (int[] size : sizes) {
+            for (long seed = 0; seed < 5; seed++) {
+                Board board = new Board(size[0], size[1], size[2]);
+                board.setSeed(seed);
+                BitBoard bitBoard = new BitBoard(size[0], size[1], size[2]);
+                bitBoard.setSeed(seed);
+
+                // Random flags and clicks until the game ends
+                SplittableRandom random = new SplittableRandom(seed);
+                board.openTile(size[0] / 2, size[1] / 2);
+                bitBoard.openTile(size[0] / 2, size[1] / 2);
+                while (board.isGameActive()) {
+                    int x = random.nextInt(size[0]);
+                    int y = random.nextInt(size[1]);
+                    if (random.nextInt(5) == 0) {
+                        board.flagTile(x, y);
+                        bitBoard.flagTile(x, y);
+                    } else {
+                        board.openTile(x, y);
+                        bitBoard.openTile(x, y);
+                    }
+                    assertEquals(board.getClosedSafeTileCount(), bitBoard.countClosedSafeTiles(),
+                            "Word-wide count of closed safe tiles should match the board");
+                }
+
+                assertSameTiles(board, bitBoard);
+                assertEquals(board.hasWon(), bitBoard.hasWon(), "Game should end the same way");
+                assertEquals(board.isGameOver(), bitBoard.isGameOver(), "Game should end the same way");
+                assertEquals(board.getMinesLeft(), bitBoard.getMinesLeft(), "Incorrect number of mines left");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing copying a board")
+    public void testCopy() {
+        Board board = new Board(100, 100, 1200);
+        board.setSeed(2);
+        board.openTile(50, 50);
+        board.flagTile(0, 0);
+
+        BitBoard bitBoard = new BitBoard(board);
+        assertSameTiles(board, bitBoard);
+        assertEquals(board.getOpenedSafeTileCount(), bitBoard.getOpenedSafeTileCount(), "Incorrect opened tile count");
+        assertEquals(board.getClosedSafeTileCount(), bitBoard.countClosedSafeTiles(), "Incorrect closed tile count");
+    }
+
+    @Test
+    @DisplayName("Testing winning and losing")
+    public void testGameCompleted() {
+        BitBoard bitBoard = new BitBoard(100, 70, 700);
+        bitBoard.setSeed(8);
+        bitBoard.openTile(50, 35);
+        for (int y = 0; y < 70; y++) {
+            for (int x = 0; x < 100; x++) {
+                if (!bitBoard.getTile(x, y).isBomb()) {
+                    bitBoard.openTile(x, y);
+                }
+            }
+        }
+        assertTrue(bitBoard.hasWon(), "Opening every safe tile should win the game");
+        assertEquals(0, bitBoard.getMinesLeft(), "Every bomb should be flagged after a win");
+
+        bitBoard.reset(8);
+        bitBoard.openTile(50, 35);
+        int bombX = 0;
+        while (!bitBoard.getTile(bombX, 0).isBomb()) {
+            bombX++;
+        }
+        bitBoard.openTile(bombX, 0);
+        assertTrue(bitBoard.isGameOver(), "Opening a bomb should end the game");
+        for (int y = 0; y < 70; y++) {
+            for (int x = 0; x < 100; x++) {
+                if (bitBoard.getTile(x, y).isBomb()) {
+                    assertTrue(bitBoard.getTile(x, y).isOpen(), "Every bomb should be opened after a loss");
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new BitBoard(3, 10, 1), "Boards smaller than 4x4 should throw");
+        assertThrows(IllegalArgumentException.class, () -> bitBoard.getTile(100, 0),
+                "Tiles outside of the board should throw");
+    }
+
+    private static void assertSameTiles(Board board, BitBoard bitBoard) {
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                Tile expected = board.getTile(x, y);
+                Tile tile = bitBoard.getTile(x, y);
+                assertEquals(expected.isBomb(), tile.isBomb(), "Incorrect bomb at " + x + "," + y);
+                assertEquals(expected.isOpen(), tile.isOpen(), "Incorrect open tile at " + x + "," + y);
+                assertEquals(expected.isFlagged(), tile.isFlagged(), "Incorrect flag at " + x + "," + y);
+                assertEquals(expected.getBombsAround(), tile.getBombsAround(), "Incorrect number at " + x + "," + y);
+            }
+        }
+    }
+}
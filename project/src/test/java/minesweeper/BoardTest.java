@@ -5,6 +5,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -104,6 +108,22 @@ public class BoardTest {
 
     }
 
+    @Test
+    @DisplayName("Testing opening a large blank area")
+    public void testOpeningLargeArea() {
+        // A single bomb in a corner leaves one blank area covering almost the whole
+        // board, which must open in one click without overflowing the stack
+        Board largeBoard = new Board(2000, 2000, 1);
+        largeBoard.preventAutoGeneratingBombLayout();
+        largeBoard.placeBombAtTile(0, 0);
+        largeBoard.openTile(1999, 1999);
+
+        assertFalse(largeBoard.getTile(0, 0).isOpen(), "The bomb should not be opened");
+        assertTrue(largeBoard.getTile(1, 1).isOpen(), "Numbered tiles around the blank area should be open");
+        assertTrue(largeBoard.getTile(1000, 0).isOpen(), "Blank tiles should be open");
+        assertTrue(largeBoard.checkVictory(), "All safe tiles should be open");
+    }
+
     @Test
     @DisplayName("Testing logic for generating bomb layout")
     public void testBombLayout() {
@@ -133,6 +153,78 @@ public class BoardTest {
         assertFalse(board.getTile(31, 61).isBomb(), "Bomb should not be placed around opening tile");
     }
 
+    @Test
+    @DisplayName("Testing bomb layout on crowded boards")
+    public void testCrowdedBombLayout() {
+        // Every tile except the 3x3 area around the first opened tile gets a bomb
+        Board fullBoard = new Board(10, 10, 91);
+        fullBoard.openTile(5, 5);
+        assertEquals(91, fullBoard.getBombCount(), "Incorrect number of bombs");
+        assertFalse(fullBoard.getTile(4, 4).isBomb(), "Bomb should not be placed around opening tile");
+        assertTrue(fullBoard.getTile(3, 3).isBomb(), "All other tiles should have bombs");
+        assertTrue(fullBoard.getTile(0, 0).isBomb(), "All other tiles should have bombs");
+
+        // Too many bombs to keep the area around the first tile free
+        Board overfullBoard = new Board(10, 10, 99);
+        overfullBoard.openTile(5, 5);
+        assertEquals(99, overfullBoard.getBombCount(), "Incorrect number of bombs");
+        assertFalse(overfullBoard.getTile(5, 5).isBomb(), "Bomb should not be placed on opening tile");
+        assertTrue(overfullBoard.checkVictory(), "Opening the only safe tile should win the game");
+    }
+
+    @Test
+    @DisplayName("Testing reproducible bomb layout from seed")
+    public void testSeededBombLayout() {
+        Board board1 = new Board(30, 16, 99);
+        Board board2 = new Board(30, 16, 99);
+        board1.setSeed(42);
+        board2.setSeed(42);
+        board1.openTile(10, 10);
+        board2.openTile(10, 10);
+
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 30; x++) {
+                assertEquals(board1.getTile(x, y).isBomb(), board2.getTile(x, y).isBomb(),
+                        "Boards with the same seed should have the same bomb layout");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing resetting the board")
+    public void testReset() {
+        board.setSeed(7);
+        board.openTile(10, 10);
+        String firstGame = board.toString();
+        board.flagTile(0, 0);
+
+        board.reset(7);
+        assertTrue(board.isGameActive(), "Game should be active after reset");
+        assertFalse(board.isBombLayoutGenerated(), "Bomb layout should be generated again after reset");
+        assertEquals(0, board.getBombCount(), "Bombs should be removed by reset");
+        assertEquals(0, board.getFlagCount(), "Flags should be removed by reset");
+        assertEquals(0, board.getOpenedSafeTileCount(), "Tiles should be closed by reset");
+
+        board.openTile(10, 10);
+        assertEquals(firstGame, board.toString(), "Resetting with the same seed should give the same game");
+    }
+
+    @Test
+    @DisplayName("Testing restarting a finished game in place")
+    public void testResetFinishedGame() {
+        premadeBoard.openTile(6, 5);
+        assertTrue(premadeBoard.isGameOver(), "Opening a bomb should end the game");
+
+        premadeBoard.reset();
+        assertTrue(premadeBoard.isGameActive(), "Game should be active after reset");
+        assertEquals(0, premadeBoard.getTile(6, 6).getBombsAround(), "Numbers should be cleared by reset");
+
+        premadeBoard.openTile(0, 0);
+        assertEquals(premadeBoard.getNumBombs(), premadeBoard.getBombCount(),
+                "A new bomb layout should be generated after reset");
+        assertFalse(premadeBoard.getTile(0, 0).isBomb(), "First opened tile should not be a bomb");
+    }
+
     @Test
     @DisplayName("Testing manually placing bomb on tile")
     public void testPlaceBombAtTile() {
@@ -141,6 +233,14 @@ public class BoardTest {
         assertTrue(premadeBoard.getTile(5, 6).isBomb(), "Tile should have a bomb placed on it");
         assertTrue(premadeBoard.getTile(7, 6).isBomb(), "Tile should have a bomb placed on it");
         assertFalse(premadeBoard.getTile(6, 6).isBomb(), "Tile should not have a bomb placed on it");
+        assertEquals(4, premadeBoard.getTile(6, 6).getBombsAround(), "Incorrect number of bombs around tile");
+        assertEquals(2, premadeBoard.getTile(5, 5).getBombsAround(), "Incorrect number of bombs around tile");
+
+        // Removing a bomb updates the numbers around it
+        premadeBoard.setTileProps(6, 5, false, false, false);
+        assertEquals(3, premadeBoard.getTile(6, 6).getBombsAround(), "Incorrect number of bombs around tile");
+        assertEquals(1, premadeBoard.getTile(5, 5).getBombsAround(), "Incorrect number of bombs around tile");
+        assertEquals(0, premadeBoard.getTile(6, 3).getBombsAround(), "Incorrect number of bombs around tile");
     }
 
     @Test
@@ -191,6 +291,62 @@ public class BoardTest {
         assertTrue(premadeBoard.getTile(5, 6).isFlagged(), "All bombs are not flagged after player has won");
     }
 
+    @Test
+    @DisplayName("Testing board statistics")
+    public void testStats() {
+        assertEquals(4, premadeBoard.getBombCount(), "Incorrect number of bombs");
+        assertEquals(77, premadeBoard.getClosedSafeTileCount(), "Incorrect number of closed safe tiles");
+
+        premadeBoard.flagTile(6, 5);
+        premadeBoard.flagTile(0, 0);
+        assertEquals(2, premadeBoard.getFlagCount(), "Incorrect number of flags");
+        assertEquals(2, premadeBoard.getMinesLeft(), "Incorrect number of mines left");
+        premadeBoard.flagTile(0, 0);
+
+        premadeBoard.openTile(4, 4);
+        assertEquals(70, premadeBoard.getOpenedSafeTileCount(), "Incorrect number of opened tiles");
+        assertEquals(7, premadeBoard.getClosedSafeTileCount(), "Incorrect number of closed safe tiles");
+
+        premadeBoard.setTileProps(8, 8, true, false, false);
+        assertEquals(5, premadeBoard.getBombCount(), "Replacing a tile should update the number of bombs");
+        assertEquals(6, premadeBoard.getClosedSafeTileCount(), "Incorrect number of closed safe tiles");
+
+        assertEquals(60, board.getMinesLeft(), "Mines left should match the configured number of bombs");
+        board.openTile(35, 35);
+        assertEquals(60, board.getBombCount(), "Incorrect number of bombs after generating layout");
+    }
+
+    @Test
+    @DisplayName("Testing reporting of changed tiles")
+    public void testListener() {
+        List<String> changedTiles = new ArrayList<>();
+        List<String> completedGames = new ArrayList<>();
+        premadeBoard.addListener(new BoardListener() {
+            @Override
+            public void tileChanged(int x, int y) {
+                changedTiles.add(x + "," + y);
+            }
+
+            @Override
+            public void gameCompleted() {
+                completedGames.add(premadeBoard.isGameActive() ? "active" : "completed");
+            }
+        });
+
+        premadeBoard.flagTile(8, 8);
+        assertEquals(List.of("8,8"), changedTiles, "Flagging should only report the flagged tile");
+
+        changedTiles.clear();
+        premadeBoard.openTile(4, 4);
+        assertEquals(70, changedTiles.size(), "Every opened tile should be reported once");
+        assertTrue(changedTiles.contains("0,0"), "Opened tile was not reported");
+
+        changedTiles.clear();
+        premadeBoard.openTile(5, 6);
+        assertEquals(4, changedTiles.size(), "Every bomb opened by the game over should be reported");
+        assertEquals(List.of("completed"), completedGames, "Game completion should be reported once");
+    }
+
     @Test
     @DisplayName("Testing game over recognition")
     public void testGameOver() {
@@ -201,4 +357,67 @@ public class BoardTest {
         assertFalse(premadeBoard.isGameActive(), "Game is still set to active after player has lost");
         assertTrue(premadeBoard.getTile(6, 5).isOpen(), "Tiles with bombs should be opened after player has lost");
     }
+
+    @Test
+    @DisplayName("Testing that a parallel cascade opens the same tiles")
+    public void testParallelCascade() {
+        // Sparse board with a blank area far above the threshold
+        Board sequential = new Board(1500, 1500, 4000);
+        sequential.setSeed(9);
+        sequential.setParallelCascadeThreshold(Integer.MAX_VALUE);
+        Board parallel = new Board(1500, 1500, 4000);
+        parallel.setSeed(9);
+        parallel.setParallelCascadeThreshold(16);
+        List<Integer> changedTiles = new ArrayList<>();
+        parallel.addListener((x, y) -> changedTiles.add(y * 1500 + x));
+
+        // Flags stop both cascades the same way
+        sequential.flagTile(700, 700);
+        parallel.flagTile(700, 700);
+        sequential.openTile(750, 750);
+        parallel.openTile(750, 750);
+
+        assertTrue(sequential.getOpenedSafeTileCount() > 100000, "Cascade should open a large area");
+        assertEquals(sequential.getOpenedSafeTileCount(), parallel.getOpenedSafeTileCount(),
+                "Parallel cascade should open as many tiles");
+        for (int y = 0; y < 1500; y++) {
+            for (int x = 0; x < 1500; x++) {
+                assertEquals(sequential.getTile(x, y).isOpen(), parallel.getTile(x, y).isOpen(),
+                        "Parallel cascade should open the same tiles");
+            }
+        }
+        assertEquals(parallel.getOpenedSafeTileCount() + 1, changedTiles.size(),
+                "Every opened tile should be reported once, after the flag");
+        assertEquals(parallel.getOpenedSafeTileCount(), new HashSet<>(changedTiles.subList(1, changedTiles.size())).size(),
+                "No tile should be reported twice");
+    }
+
+    @Test
+    @DisplayName("Testing numbers calculated in parallel bands")
+    public void testParallelNumbers() {
+        // Large enough for the parallel pass, with a height that is not a multiple of
+        // the band height
+        Board board = new Board(700, 530, 70000);
+        board.setSeed(4);
+        board.setParallelCascadeThreshold(Integer.MAX_VALUE);
+        board.openTile(350, 265);
+
+        for (int y = 0; y < 530; y++) {
+            for (int x = 0; x < 700; x++) {
+                int bombs = 0;
+                for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, 529); j++) {
+                    for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, 699); i++) {
+                        bombs += board.getTile(i, j).isBomb() ? 1 : 0;
+                    }
+                }
+                assertEquals(bombs, board.getTile(x, y).getBombsAround(), "Incorrect number of bombs around tile");
+            }
+        }
+        assertEquals(70000, board.getBombCount(), "Incorrect number of bombs");
+
+        board.reset();
+        assertEquals(0, board.getOpenedSafeTileCount(), "Reset should clear the board");
+        assertFalse(board.getTile(699, 529).isOpen() || board.getTile(699, 529).isBomb(),
+                "Reset should clear every band");
+    }
 }
@@ -0,0 +1,301 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChunkedBoardTest {
+    @Test
+    @DisplayName("Testing constructor")
+    public void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedBoard(3, 100, 0.2, 0),
+                "Boards smaller than 4x4 should throw");
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedBoard(100, 100, 0, 0),
+                "Boards without bombs should throw");
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedBoard(100, 100, 1, 0),
+                "Boards full of bombs should throw");
+
+        ChunkedBoard board = new ChunkedBoard(Integer.MAX_VALUE, Integer.MAX_VALUE, 0.2, 0);
+        assertEquals(0, board.getChunkCount(), "No chunks should be created up front");
+    }
+
+    @Test
+    @DisplayName("Testing that chunks are generated the same way from the seed")
+    public void testDeterministicChunks() {
+        ChunkedBoard board1 = new ChunkedBoard(1000, 1000, 0.2, 42);
+        ChunkedBoard board2 = new ChunkedBoard(1000, 1000, 0.2, 42);
+        ChunkedBoard board3 = new ChunkedBoard(1000, 1000, 0.2, 43);
+
+        // Chunks are visited in different orders on the two boards
+        assertEquals(bombsInArea(board1, 100, 100, 200), bombsInArea(board1, 100, 100, 200),
+                "Same board should give the same layout");
+        board2.getTile(999, 999);
+        assertEquals(bombsInArea(board1, 100, 100, 200), bombsInArea(board2, 100, 100, 200),
+                "Same seed should give the same layout");
+        assertNotEquals(bombsInArea(board1, 100, 100, 200), bombsInArea(board3, 100, 100, 200),
+                "Different seeds should give different layouts");
+    }
+
+    @Test
+    @DisplayName("Testing numbers across chunk borders")
+    public void testNumbers() {
+        ChunkedBoard board = new ChunkedBoard(100, 100, 0.2, 7);
+        board.openTile(board.getStartX(), board.getStartY());
+
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                Tile tile = board.getTile(x, y);
+                if (tile.isOpen()) {
+                    assertEquals(countBombsAround(board, x, y), tile.getBombsAround(), "Incorrect number of bombs around tile");
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the number of bombs")
+    public void testNumBombs() {
+        // Board with partial chunks along the right and bottom edges
+        ChunkedBoard board = new ChunkedBoard(100, 70, 0.15, 3);
+        int bombs = 0;
+        for (int y = 0; y < 70; y++) {
+            for (int x = 0; x < 100; x++) {
+                bombs += board.getTile(x, y).isBomb() ? 1 : 0;
+            }
+        }
+
+        assertEquals(bombs, board.getNumBombs(), "Incorrect number of bombs");
+        assertEquals(bombs, board.getMinesLeft(), "Incorrect number of mines left");
+        assertEquals(1050, bombs, 10, "Bomb density should be close to the given one");
+    }
+
+    @Test
+    @DisplayName("Testing opening the start tile")
+    public void testOpenStartTile() {
+        ChunkedBoard board = new ChunkedBoard(Integer.MAX_VALUE, Integer.MAX_VALUE, 0.2, 1);
+        board.openTile(board.getStartX(), board.getStartY());
+
+        assertTrue(board.isGameActive(), "Start tile should be safe");
+        assertEquals(0, board.getTile(board.getStartX(), board.getStartY()).getBombsAround(),
+                "Tiles around the start tile should be safe");
+        assertTrue(board.getOpenedSafeTileCount() >= 9, "Blank start tile should open the tiles around it");
+        assertTrue(board.getChunkCount() < 100, "Only the chunks around the opened area should be created");
+    }
+
+    @Test
+    @DisplayName("Testing continuing a cascade that paused at the limit")
+    public void testCascadeLimit() {
+        ChunkedBoard board = new ChunkedBoard(300, 300, 0.01, 5);
+        board.setMaxCascadeTiles(64);
+        board.openTile(board.getStartX(), board.getStartY());
+
+        long opened = board.getOpenedSafeTileCount();
+        assertTrue(opened >= 64 && opened < 100, "Cascade should pause at the limit");
+        assertTrue(board.isCascadePending(), "Paused cascade should keep the rest of its queue");
+
+        for (int i = 0; i < 10000 && board.isCascadePending(); i++) {
+            board.continueCascade(1000);
+        }
+        assertFalse(board.isCascadePending(), "Cascade should finish");
+        assertTrue(board.getOpenedSafeTileCount() > 10000, "Cascade should open the whole blank area");
+
+        // No open blank tile is left with closed tiles around it
+        for (int y = 0; y < 300; y++) {
+            for (int x = 0; x < 300; x++) {
+                Tile tile = board.getTile(x, y);
+                if (tile.isOpen() && tile.getBombsAround() == 0) {
+                    assertFalse(hasClosedNeighbour(board, x, y), "Tiles around an open blank tile should be opened");
+                }
+            }
+        }
+        assertTrue(board.isGameActive(), "Cascade should only open safe tiles");
+    }
+
+    @Test
+    @DisplayName("Testing winning and losing")
+    public void testGameCompleted() {
+        ChunkedBoard board = new ChunkedBoard(40, 40, 0.1, 5);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                if (!board.getTile(x, y).isBomb()) {
+                    board.openTile(x, y);
+                }
+            }
+        }
+        assertTrue(board.hasWon(), "Opening every safe tile should win the game");
+        assertEquals(0, board.getMinesLeft(), "Every bomb should be flagged after a win");
+
+        board.reset(5);
+        assertTrue(board.isGameActive(), "Game should be active after reset");
+        int bombX = 0;
+        while (!board.getTile(bombX, 0).isBomb()) {
+            bombX++;
+        }
+        board.flagTile(bombX, 0);
+        assertEquals(board.getNumBombs() - 1, board.getMinesLeft(), "Flag should count as a found mine");
+        board.openTile(bombX, 0);
+        assertTrue(board.isGameActive(), "Flagged tiles should not be opened");
+        board.flagTile(bombX, 0);
+        board.openTile(bombX, 0);
+        assertTrue(board.isGameOver(), "Opening a bomb should end the game");
+        assertFalse(board.hasWon(), "Lost game should not be won");
+    }
+
+    @Test
+    @DisplayName("Testing that evicted chunks keep their state")
+    public void testChunkCache() throws IOException {
+        ChunkedBoard small = new ChunkedBoard(1000, 1000, 0.1, 11, 16);
+        ChunkedBoard large = new ChunkedBoard(1000, 1000, 0.1, 11);
+        small.openTile(small.getStartX(), small.getStartY());
+        large.openTile(large.getStartX(), large.getStartY());
+
+        // Flags spread over far more chunks than the small cache holds
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 500; i++) {
+            int x = random.nextInt(1000);
+            int y = random.nextInt(1000);
+            small.flagTile(x, y);
+            large.flagTile(x, y);
+        }
+
+        for (int y = 0; y < 1000; y++) {
+            for (int x = 0; x < 1000; x++) {
+                Tile expected = large.getTile(x, y);
+                Tile tile = small.getTile(x, y);
+                assertEquals(expected.isBomb(), tile.isBomb(), "Bombs should be the same after being paged out");
+                assertEquals(expected.isOpen(), tile.isOpen(), "Open tiles should be the same after being paged out");
+                assertEquals(expected.isFlagged(), tile.isFlagged(), "Flags should be the same after being paged out");
+                if (tile.isOpen()) {
+                    assertEquals(expected.getBombsAround(), tile.getBombsAround(), "Numbers should be the same after being paged out");
+                }
+            }
+        }
+        assertEquals(large.getFlagCount(), small.getFlagCount(), "Flag count should not depend on the cache");
+
+        ChunkCache cache = small.getChunkCache();
+        assertTrue(small.getChunkCount() <= 16, "Cache should not hold more chunks than its capacity");
+        assertTrue(cache.getEvictions() > 0, "Chunks should be evicted");
+        assertTrue(cache.getPageWrites() > 0, "Changed chunks should be paged out");
+        assertTrue(cache.getPageReads() > 0, "Paged out chunks should be read back");
+        assertTrue(cache.getHits() > cache.getMisses(), "Most lookups should hit the last chunk");
+        assertEquals(0, large.getChunkCache().getEvictions(), "Large cache should not evict");
+
+        small.close();
+        large.close();
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedBoard(100, 100, 0.1, 0, 8),
+                "Cache too small to number a chunk should throw");
+    }
+
+    @Test
+    @DisplayName("Testing paging out more chunks than the first page index holds")
+    public void testManyPagedChunks() throws IOException {
+        ChunkedBoard board = new ChunkedBoard(4000, 4000, 0.1, 13, 16);
+        int chunksPerSide = 4000 / ChunkedBoard.CHUNK_SIZE;
+        for (int chunkY = 0; chunkY < chunksPerSide; chunkY += 2) {
+            for (int chunkX = 0; chunkX < chunksPerSide; chunkX += 2) {
+                board.flagTile(chunkX * ChunkedBoard.CHUNK_SIZE + chunkY % 7, chunkY * ChunkedBoard.CHUNK_SIZE);
+            }
+        }
+        assertTrue(board.getChunkCache().getPageWrites() > 3000, "Flagged chunks should be paged out");
+
+        for (int chunkY = 0; chunkY < chunksPerSide; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksPerSide; chunkX++) {
+                boolean flagged = chunkX % 2 == 0 && chunkY % 2 == 0;
+                assertEquals(flagged, board.getTile(chunkX * ChunkedBoard.CHUNK_SIZE + chunkY % 7,
+                        chunkY * ChunkedBoard.CHUNK_SIZE).isFlagged(), "Flags should be kept in paged out chunks");
+            }
+        }
+        board.close();
+    }
+
+    @Test
+    @DisplayName("Testing reading chunks from the page file")
+    public void testPageFile() throws IOException {
+        File file = File.createTempFile("minesweeper-chunks", ".pages");
+        try (ChunkPageFile pageFile = new ChunkPageFile(file)) {
+            Chunk chunk = new Chunk();
+            chunk.numbered = true;
+            chunk.tiles[5] = Tile.FLAGGED;
+            pageFile.write(42, chunk);
+
+            Chunk read = pageFile.read(42);
+            assertTrue(read.numbered, "Numbered chunk should be read back as numbered");
+            assertEquals(Tile.FLAGGED, read.tiles[5], "Tiles should be read back");
+            for (long key = 0; key < 10000; key++) {
+                if (key != 42) {
+                    assertNull(pageFile.read(key), "Chunks never paged out should not be found");
+                }
+            }
+
+            pageFile.clear();
+            assertNull(pageFile.read(42), "Cleared chunks should not be found");
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing winning with chunks paged out")
+    public void testGameCompletedWithEviction() throws IOException {
+        ChunkedBoard board = new ChunkedBoard(200, 200, 0.1, 5, 16);
+        for (int y = 0; y < 200; y++) {
+            for (int x = 0; x < 200; x++) {
+                if (!board.getTile(x, y).isBomb()) {
+                    board.openTile(x, y);
+                }
+            }
+        }
+        assertTrue(board.hasWon(), "Opening every safe tile should win the game");
+        assertEquals(0, board.getMinesLeft(), "Every bomb should be flagged after a win");
+
+        // Chunks paged out before the win get their bombs flagged when read back
+        for (int y = 0; y < 200; y++) {
+            for (int x = 0; x < 200; x++) {
+                Tile tile = board.getTile(x, y);
+                assertEquals(tile.isBomb(), tile.isFlagged(), "Only bombs should be flagged after a win");
+            }
+        }
+        board.close();
+    }
+
+    private static long bombsInArea(ChunkedBoard board, int minX, int minY, int size) {
+        long hash = 0;
+        for (int y = minY; y < minY + size; y++) {
+            for (int x = minX; x < minX + size; x++) {
+                hash = hash * 31 + (board.getTile(x, y).isBomb() ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static boolean hasClosedNeighbour(ChunkedBoard board, int x, int y) {
+        for (int nextY = Math.max(y - 1, 0); nextY <= Math.min(y + 1, board.getHeight() - 1); nextY++) {
+            for (int nextX = Math.max(x - 1, 0); nextX <= Math.min(x + 1, board.getWidth() - 1); nextX++) {
+                if (!board.getTile(nextX, nextY).isOpen()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int countBombsAround(ChunkedBoard board, int x, int y) {
+        int bombs = 0;
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, board.getHeight() - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, board.getWidth() - 1); i++) {
+                bombs += board.getTile(i, j).isBomb() ? 1 : 0;
+            }
+        }
+        return bombs;
+    }
+}
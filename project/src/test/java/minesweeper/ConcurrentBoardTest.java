@@ -0,0 +1,228 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentBoardTest {
+    private static final int THREADS = 8;
+
+    @Test
+    @DisplayName("Testing that concurrent cascades open the same tiles as a board")
+    public void testConcurrentCascades() throws InterruptedException {
+        // Sparse board with large blank areas, so cascades of different threads
+        // run into each other
+        Board board = new Board(400, 400, 1600);
+        board.setSeed(3);
+        board.openTile(0, 0);
+        ConcurrentBoard concurrentBoard = new ConcurrentBoard(400, 400, 1600);
+        concurrentBoard.setSeed(3);
+        concurrentBoard.openTile(0, 0);
+
+        // Every thread opens a different share of the safe tiles in every tenth row
+        runThreads(thread -> {
+            for (int y = 0; y < 400; y += 10) {
+                for (int x = thread; x < 400; x += THREADS) {
+                    if (!concurrentBoard.getTile(x, y).isBomb()) {
+                        concurrentBoard.openTile(x, y);
+                    }
+                }
+            }
+        });
+        for (int y = 0; y < 400; y += 10) {
+            for (int x = 0; x < 400; x++) {
+                if (!board.getTile(x, y).isBomb()) {
+                    board.openTile(x, y);
+                }
+            }
+        }
+
+        int open = 0;
+        for (int y = 0; y < 400; y++) {
+            for (int x = 0; x < 400; x++) {
+                assertEquals(board.getTile(x, y).isBomb(), concurrentBoard.getTile(x, y).isBomb(),
+                        "Same seed should give the same layout");
+                assertEquals(board.getTile(x, y).isOpen(), concurrentBoard.getTile(x, y).isOpen(),
+                        "Concurrent cascades should open the same tiles as a board");
+                open += concurrentBoard.getTile(x, y).isOpen() ? 1 : 0;
+            }
+        }
+        assertEquals(open, concurrentBoard.getOpenedSafeTileCount(), "Every opened tile should be counted once");
+        assertEquals(board.getOpenedSafeTileCount(), concurrentBoard.getOpenedSafeTileCount(),
+                "Opened tile count should match the board");
+    }
+
+    @Test
+    @DisplayName("Testing that the game is won exactly once")
+    public void testWinOnce() throws InterruptedException {
+        ConcurrentBoard board = new ConcurrentBoard(100, 100, 1500);
+        AtomicInteger completions = new AtomicInteger();
+        board.addListener(new BoardListener() {
+            @Override
+            public void tileChanged(int x, int y) {
+            }
+
+            @Override
+            public void gameCompleted() {
+                completions.incrementAndGet();
+            }
+        });
+
+        for (int round = 0; round < 20; round++) {
+            board.reset(round);
+            board.openTile(50, 50);
+
+            // Every thread tries to open every safe tile, in a different order
+            runThreads(thread -> {
+                for (int i = 0; i < 10000; i++) {
+                    int index = (i * 7919 + thread * 1237) % 10000;
+                    if (!board.getTile(index % 100, index / 100).isBomb()) {
+                        board.openTile(index % 100, index / 100);
+                    }
+                }
+            });
+
+            assertTrue(board.hasWon(), "Opening every safe tile should win the game");
+            assertFalse(board.isGameOver(), "Won game should not be lost");
+            assertEquals(round + 1, completions.get(), "Game should be completed exactly once");
+            assertEquals(0, board.getMinesLeft(), "Every bomb should be flagged after a win");
+        }
+    }
+
+    @Test
+    @DisplayName("Testing that a win and a loss can't both happen")
+    public void testWinOrLoss() throws InterruptedException {
+        ConcurrentBoard board = new ConcurrentBoard(60, 60, 400);
+        AtomicInteger completions = new AtomicInteger();
+        board.addListener(new BoardListener() {
+            @Override
+            public void tileChanged(int x, int y) {
+            }
+
+            @Override
+            public void gameCompleted() {
+                completions.incrementAndGet();
+            }
+        });
+
+        for (int round = 0; round < 50; round++) {
+            board.reset(round);
+            board.openTile(30, 30);
+
+            // Half of the threads race to open the safe tiles, the others open bombs
+            runThreads(thread -> {
+                for (int i = 0; i < 3600; i++) {
+                    int x = i % 60;
+                    int y = i / 60;
+                    if (board.getTile(x, y).isBomb() == (thread % 2 == 1)) {
+                        board.openTile(x, y);
+                    }
+                }
+            });
+
+            assertTrue(board.hasWon() != board.isGameOver(), "Game should be either won or lost");
+            assertEquals(round + 1, completions.get(), "Game should be completed exactly once");
+        }
+    }
+
+    @Test
+    @DisplayName("Testing concurrent flags")
+    public void testConcurrentFlags() throws InterruptedException {
+        ConcurrentBoard board = new ConcurrentBoard(100, 100, 500);
+        // Every tile is toggled by two threads, which leaves it unflagged
+        runThreads(thread -> {
+            for (int i = 0; i < 10000; i++) {
+                board.flagTile(i % 100, i / 100);
+            }
+        });
+        assertEquals(0, board.getFlagCount(), "Flag toggles should not be lost");
+
+        board.flagTile(1, 1);
+        board.openTile(50, 50);
+        assertTrue(board.getTile(1, 1).isFlagged(), "Flags should be kept when the layout is generated");
+        assertThrows(IllegalArgumentException.class, () -> board.openTile(100, 0),
+                "Opening tiles outside of the board should throw");
+    }
+
+    @Test
+    @DisplayName("Testing that flags toggled during a win stay on the bombs")
+    public void testFlagsDuringWin() throws InterruptedException {
+        ConcurrentBoard board = new ConcurrentBoard(30, 30, 150);
+        for (int round = 0; round < 50; round++) {
+            board.reset(round);
+            board.openTile(15, 15);
+
+            // Opens every safe tile but the last one, and flags every other bomb
+            int lastSafeTile = -1;
+            for (int i = 0; i < 900; i++) {
+                Tile tile = board.getTile(i % 30, i / 30);
+                if (tile.isBomb()) {
+                    if (i % 2 == 0) {
+                        board.flagTile(i % 30, i / 30);
+                    }
+                } else if (!tile.isOpen()) {
+                    if (lastSafeTile >= 0) {
+                        board.openTile(lastSafeTile % 30, lastSafeTile / 30);
+                    }
+                    lastSafeTile = i;
+                }
+            }
+            int winningTile = lastSafeTile;
+
+            // One thread opens the last safe tile while the others toggle the flags
+            // on the bombs until the game is won
+            runThreads(thread -> {
+                if (thread == 0) {
+                    board.openTile(winningTile % 30, winningTile / 30);
+                    return;
+                }
+                while (board.isGameActive()) {
+                    for (int i = thread - 1; i < 900; i += THREADS - 1) {
+                        if (board.getTile(i % 30, i / 30).isBomb()) {
+                            board.flagTile(i % 30, i / 30);
+                        }
+                    }
+                }
+            });
+
+            assertTrue(board.hasWon(), "Opening the last safe tile should win the game");
+            for (int i = 0; i < 900; i++) {
+                if (board.getTile(i % 30, i / 30).isBomb()) {
+                    assertTrue(board.getTile(i % 30, i / 30).isFlagged(), "Every bomb should be flagged after a win");
+                }
+            }
+            assertEquals(150, board.getFlagCount(), "Every flag should be counted once");
+        }
+    }
+
+    // Runs the action on THREADS threads at once, passing each its number
+    private static void runThreads(IntConsumer action) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                action.accept(thread);
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -2,8 +2,11 @@ package minesweeper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -57,12 +60,119 @@ public class MinesweeperFileHandlerTest {
                 "Boards of different dimensions should not be equal");
     }
 
+    @Test
+    @DisplayName("Testing loading finished games and invalid files")
+    public void testLoadFinishedAndInvalid() throws IOException {
+        // A lost game has no trailing space after its board properties
+        Board lostBoard = new Board(9, 9, 10);
+        lostBoard.preventAutoGeneratingBombLayout();
+        lostBoard.placeBombAtTile(2, 3);
+        lostBoard.openTile(2, 3);
+        fileHandler.writeToFile(lostBoard, new File("./TestBoard1.txt"));
+        Board savedLostBoard = fileHandler.readFromFile(new File("./TestBoard1.txt"));
+        assertEquals(lostBoard.toString(), savedLostBoard.toString(), "Saved board should be equal");
+        assertEquals(lostBoard.getBoardProps(), savedLostBoard.getBoardProps(), "Saved board should be equal");
+
+        // Rows of different lengths
+        try (FileWriter writer = new FileWriter("./TestBoard2.txt")) {
+            writer.write("1 1 0 0 \n");
+            writer.write("xxx xxx xxx xxx \nxxx xxx xxx xxx \nxxx xxx xxx \nxxx xxx xxx xxx \n");
+        }
+        assertThrows(IOException.class, () -> {
+            fileHandler.readFromFile(new File("./TestBoard2.txt"));
+        }, "Rows of different lengths should not be accepted");
+
+        // Windows line endings and trailing blank lines
+        try (FileWriter writer = new FileWriter("./TestBoard2.txt")) {
+            writer.write("1 1 0 0 \r\n");
+            writer.write("bxx xxx xxx xxx \r\nxxx xxx xxx xxx \r\nxxx xxx xxx xxx \r\nxxx xxx xxx xxx \r\n\r\n\r\n");
+        }
+        Board crlfBoard = fileHandler.readFromFile(new File("./TestBoard2.txt"));
+        assertEquals(4, crlfBoard.getWidth(), "Incorrect board width");
+        assertEquals(4, crlfBoard.getHeight(), "Trailing blank lines should not be counted as rows");
+        assertTrue(crlfBoard.getTile(0, 0).isBomb(), "Tile state should be loaded");
+
+        // Blank line between rows
+        try (FileWriter writer = new FileWriter("./TestBoard2.txt")) {
+            writer.write("1 1 0 0 \n");
+            writer.write("xxx xxx xxx xxx \n\nxxx xxx xxx xxx \n");
+        }
+        assertThrows(IOException.class, () -> {
+            fileHandler.readFromFile(new File("./TestBoard2.txt"));
+        }, "Blank lines between rows should not be accepted");
+
+        // Missing board properties
+        try (FileWriter writer = new FileWriter("./TestBoard3.txt")) {
+            writer.write("1 1\n");
+            writer.write("xxx xxx xxx xxx \nxxx xxx xxx xxx \nxxx xxx xxx xxx \nxxx xxx xxx xxx \n");
+        }
+        assertThrows(IOException.class, () -> {
+            fileHandler.readFromFile(new File("./TestBoard3.txt"));
+        }, "Missing board properties should not be accepted");
+    }
+
+    @Test
+    @DisplayName("Testing saving and loading game state from binary file")
+    public void testBinarySaveLoad() throws IOException {
+        FileHandler binaryFileHandler = new BinaryFileHandler();
+        binaryFileHandler.writeToFile(board2, new File("./TestBoard2.msb"));
+        binaryFileHandler.writeToFile(board3, new File("./TestBoard3.msb"));
+        Board savedBoard2 = binaryFileHandler.readFromFile(new File("./TestBoard2.msb"));
+        Board savedBoard3 = binaryFileHandler.readFromFile(new File("./TestBoard3.msb"));
+
+        assertEquals(board2.toString(), savedBoard2.toString(), "Saved board should be equal");
+        assertEquals(board2.getBoardProps(), savedBoard2.getBoardProps(), "Saved board should be equal");
+        board2.openTile(3, 3);
+        savedBoard2.openTile(3, 3);
+        assertEquals(board2.toString(), savedBoard2.toString(), "Saved board should be equal");
+
+        assertEquals(board3.toString(), savedBoard3.toString(), "Saved board should be equal");
+        assertEquals(board3.getFlagCount(), savedBoard3.getFlagCount(), "Saved board should be equal");
+
+        fileHandler.writeToFile(board1, new File("./TestBoard1.txt"));
+        assertThrows(IOException.class, () -> {
+            binaryFileHandler.readFromFile(new File("./TestBoard1.txt"));
+        }, "Text save files should not be read as binary");
+    }
+
+    @Test
+    @DisplayName("Testing saving and loading game state from compressed file")
+    public void testCompressedSaveLoad() throws IOException {
+        Board largeBoard = new Board(100, 100, 1500);
+        largeBoard.flagTile(0, 0);
+        largeBoard.openTile(50, 50);
+        fileHandler.writeToFile(largeBoard, new File("./TestBoard1.txt"));
+        long textSize = new File("./TestBoard1.txt").length();
+
+        for (SaveCodec codec : new SaveCodec[] { new GzipCodec(), new RunLengthCodec() }) {
+            FileHandler compressedFileHandler = new CompressedFileHandler(codec);
+            compressedFileHandler.writeToFile(largeBoard, new File("./TestBoard1.msz"));
+            Board savedBoard = compressedFileHandler.readFromFile(new File("./TestBoard1.msz"));
+
+            assertEquals(largeBoard.toString(), savedBoard.toString(), "Saved board should be equal");
+            assertEquals(largeBoard.getBoardProps(), savedBoard.getBoardProps(), "Saved board should be equal");
+            assertTrue(new File("./TestBoard1.msz").length() * 20 < textSize,
+                    "Compressed save file should be at least 20 times smaller than text");
+        }
+
+        // Uncompressed files are detected and read as well
+        FileHandler compressedFileHandler = new CompressedFileHandler();
+        assertEquals(largeBoard.toString(), compressedFileHandler.readFromFile(new File("./TestBoard1.txt")).toString(),
+                "Text save file should be detected");
+        new BinaryFileHandler().writeToFile(board3, new File("./TestBoard3.msb"));
+        assertEquals(board3.toString(), compressedFileHandler.readFromFile(new File("./TestBoard3.msb")).toString(),
+                "Binary save file should be detected");
+    }
+
     // Cleans up leftover save files after test is completed
     @AfterAll
     public static void teardown() throws IOException {
         File board1File = new File("./TestBoard1.txt");
         File board2File = new File("./TestBoard2.txt");
         File board3File = new File("./TestBoard3.txt");
+        File board1CompressedFile = new File("./TestBoard1.msz");
+        File board2BinaryFile = new File("./TestBoard2.msb");
+        File board3BinaryFile = new File("./TestBoard3.msb");
 
         if (!board1File.delete()) {
             throw new IOException("Failed to delete file at " + board1File.getPath());
@@ -73,5 +183,14 @@ public class MinesweeperFileHandlerTest {
         if (!board3File.delete()) {
             throw new IOException("Failed to delete file at " + board3File.getPath());
         }
+        if (!board1CompressedFile.delete()) {
+            throw new IOException("Failed to delete file at " + board1CompressedFile.getPath());
+        }
+        if (!board2BinaryFile.delete()) {
+            throw new IOException("Failed to delete file at " + board2BinaryFile.getPath());
+        }
+        if (!board3BinaryFile.delete()) {
+            throw new IOException("Failed to delete file at " + board3BinaryFile.getPath());
+        }
     }
 }
@@ -0,0 +1,98 @@
+package minesweeper.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+
+public class GameServerTest {
+    @Test
+    @DisplayName("Testing that sessions play like a board with the same seed")
+    public void testSession() {
+        try (GameServer server = new GameServer()) {
+            long id1 = server.createGame(BoardConfig.MEDIUM, 42);
+            long id2 = server.createGame(BoardConfig.MEDIUM, 42);
+            assertNotEquals(id1, id2, "Games should get different ids");
+            assertEquals(2, server.getGameCount(), "Incorrect number of games");
+
+            Board board = BoardConfig.MEDIUM.createBoard();
+            board.setSeed(42);
+            board.openTile(3, 3);
+            assertEquals(GameState.ACTIVE, server.openTile(id1, 3, 3), "First click should be safe");
+            for (int y = 0; y < board.getHeight(); y++) {
+                for (int x = 0; x < board.getWidth(); x++) {
+                    assertEquals(board.getTile(x, y).isOpen(), server.getSession(id1).getTile(x, y).isOpen(),
+                            "Session should open the same tiles as the board");
+                }
+            }
+
+            // Opening a bomb loses the game
+            int bombX = 0;
+            int bombY = 0;
+            while (!board.getTile(bombX, bombY).isBomb()) {
+                bombX = (bombX + 1) % board.getWidth();
+                bombY += bombX == 0 ? 1 : 0;
+            }
+            assertEquals(GameState.LOST, server.openTile(id1, bombX, bombY), "Opening a bomb should lose");
+            server.restartGame(id1, 42);
+            assertEquals(GameState.ACTIVE, server.getSession(id1).getState(), "Restarted game should be active");
+            assertEquals(2, server.getSession(id1).getMoves(), "Incorrect number of moves");
+
+            server.closeGame(id2);
+            assertThrows(IllegalArgumentException.class, () -> server.openTile(id2, 0, 0),
+                    "Moves on a closed game should throw");
+            assertThrows(IllegalArgumentException.class, () -> server.closeGame(id2),
+                    "Closing a closed game should throw");
+        }
+    }
+
+    @Test
+    @DisplayName("Testing that concurrent moves on a game are serialized")
+    public void testConcurrentMoves() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (GameServer server = new GameServer(pool)) {
+            long[] ids = new long[4];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = server.createGame(BoardConfig.HARD, i);
+            }
+
+            // Every game gets an even number of flag toggles on the same tile, which
+            // only leaves it unflagged if no toggle is lost
+            List<CompletableFuture<GameState>> moves = new ArrayList<>();
+            for (int i = 0; i < 4000; i++) {
+                moves.add(server.submitFlagTile(ids[i % ids.length], 5, 5));
+            }
+            CompletableFuture.allOf(moves.toArray(new CompletableFuture<?>[0])).join();
+
+            for (long id : ids) {
+                GameSession session = server.getSession(id);
+                assertEquals(1000, session.getMoves(), "Every move should be counted once");
+                assertFalse(session.getTile(5, 5).isFlagged(), "Flag toggles should not be lost");
+                assertEquals(99, session.getMinesLeft(), "Flag count should not be corrupted");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the load test driver")
+    public void testLoadTest() {
+        LoadTest loadTest = new LoadTest(BoardConfig.EASY, 100);
+        assertTrue(loadTest.run(2, 50000, 0) > 0, "Load test should make moves");
+        assertThrows(IllegalArgumentException.class, () -> new LoadTest(BoardConfig.EASY, 0),
+                "Load test without games should throw");
+    }
+}
@@ -0,0 +1,57 @@
+package minesweeper.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import minesweeper.BoardConfig;
+
+public class SimulatorTest {
+    @Test
+    @DisplayName("Testing that every game is played to the end")
+    public void testRun() {
+        Simulator simulator = new Simulator(BoardConfig.EASY, RandomStrategy::new);
+        SimulationResult result = simulator.run(0, 500);
+
+        assertEquals(500, result.getGames(), "Incorrect number of games");
+        assertEquals(0, result.getUnfinished(), "Random strategy should finish every game");
+        assertTrue(result.getMoves() >= 500, "Every game takes at least one move");
+    }
+
+    @Test
+    @DisplayName("Testing reproducible results on any number of threads")
+    public void testReproducible() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool fourThreads = new ForkJoinPool(4);
+
+        SimulationResult result1 = new Simulator(BoardConfig.MEDIUM, RandomStrategy::new, singleThread).run(100, 300);
+        SimulationResult result2 = new Simulator(BoardConfig.MEDIUM, RandomStrategy::new, fourThreads).run(100, 300);
+
+        assertEquals(result1.getWins(), result2.getWins(), "Same seeds should give the same number of wins");
+        assertEquals(result1.getMoves(), result2.getMoves(), "Same seeds should give the same number of moves");
+
+        singleThread.shutdown();
+        fourThreads.shutdown();
+    }
+
+    @Test
+    @DisplayName("Testing that each thread reuses one board and strategy")
+    public void testReusedPlayers() {
+        ForkJoinPool twoThreads = new ForkJoinPool(2);
+        AtomicInteger strategies = new AtomicInteger();
+        Simulator simulator = new Simulator(BoardConfig.EASY, () -> {
+            strategies.incrementAndGet();
+            return new RandomStrategy();
+        }, twoThreads);
+
+        assertEquals(1000, simulator.run(0, 1000).getGames(), "Incorrect number of games");
+        assertTrue(strategies.get() <= 2, "No more players should be created than there are threads");
+
+        twoThreads.shutdown();
+    }
+}
@@ -0,0 +1,65 @@
+package minesweeper.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.OptionalLong;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+
+public class NoGuessGeneratorTest {
+    @Test
+    @DisplayName("Testing that generated layouts are solved without guessing")
+    public void testSolvableLayouts() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+
+        for (long baseSeed = 0; baseSeed < 20; baseSeed++) {
+            int firstX = (int) (baseSeed * 7 % 30);
+            int firstY = (int) (baseSeed * 3 % 16);
+            OptionalLong seed = generator.findSeed(BoardConfig.HARD, firstX, firstY, baseSeed * 1000);
+            assertTrue(seed.isPresent(), "Generator should find a layout");
+
+            Board board = BoardConfig.HARD.createBoard();
+            board.setSeed(seed.getAsLong());
+            Solver solver = new Solver(board);
+            board.openTile(firstX, firstY);
+            solver.solve();
+            assertTrue(board.hasWon(), "Solver should clear the layout without guessing");
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the same layout on any number of threads")
+    public void testReproducible() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ForkJoinPool fourThreads = new ForkJoinPool(4);
+
+        for (long baseSeed = 0; baseSeed < 10; baseSeed++) {
+            assertEquals(new NoGuessGenerator(singleThread, 1000).findSeed(BoardConfig.HARD, 15, 8, baseSeed),
+                    new NoGuessGenerator(fourThreads, 1000).findSeed(BoardConfig.HARD, 15, 8, baseSeed),
+                    "Same base seed should give the same layout");
+        }
+
+        singleThread.shutdown();
+        fourThreads.shutdown();
+    }
+
+    @Test
+    @DisplayName("Testing giving up after the last attempt")
+    public void testMaxAttempts() {
+        // With 14 bombs on 16 tiles, the number on the first tile never tells where
+        // the one other safe tile is
+        NoGuessGenerator generator = new NoGuessGenerator(ForkJoinPool.commonPool(), 50);
+        assertFalse(generator.findSeed(new BoardConfig(4, 4, 14), 1, 1, 0).isPresent(),
+                "Crowded board should not be solvable");
+        assertThrows(IllegalArgumentException.class, () -> generator.findSeed(BoardConfig.EASY, 9, 0, 0),
+                "First click outside of the board should throw");
+    }
+}
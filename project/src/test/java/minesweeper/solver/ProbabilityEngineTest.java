@@ -0,0 +1,161 @@
+package minesweeper.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+import minesweeper.simulation.Simulator;
+
+public class ProbabilityEngineTest {
+    @Test
+    @DisplayName("Testing probabilities without open tiles")
+    public void testInteriorOnly() {
+        Board board = new Board(4, 4, 3);
+        ProbabilityEngine engine = new ProbabilityEngine(board);
+        engine.update();
+
+        assertEquals(0, engine.getComponentCount(), "Closed board should have no frontier");
+        assertEquals(3.0 / 16, engine.getMineProbability(2, 2), 1e-12, "Incorrect probability");
+    }
+
+    @Test
+    @DisplayName("Testing weighting of frontier and interior")
+    public void testFrontierAndInterior() {
+        // A single open 1 surrounded by 8 closed tiles holds one of the two mines.
+        // Each of its tiles has a mine in 1 of 8 layouts, and the 7 interior tiles
+        // share the other mine
+        Board board = new Board(4, 4, 2);
+        board.preventAutoGeneratingBombLayout();
+        board.placeBombAtTile(0, 0);
+        board.placeBombAtTile(3, 3);
+        board.setTileProps(1, 1, false, false, true);
+
+        ProbabilityEngine engine = new ProbabilityEngine(board);
+        engine.update();
+
+        assertEquals(1, engine.getComponentCount(), "Frontier should be a single component");
+        assertEquals(0, engine.getMineProbability(1, 1), "Open tile should have no mine");
+        assertEquals(1.0 / 8, engine.getMineProbability(2, 2), 1e-12, "Incorrect frontier probability");
+        assertEquals(1.0 / 7, engine.getMineProbability(3, 3), 1e-12, "Incorrect interior probability");
+
+        int safest = engine.findSafestTile();
+        assertEquals(1.0 / 8, engine.getMineProbability(safest % 4, safest / 4), 1e-12,
+                "Safest tile should be on the frontier");
+    }
+
+    @Test
+    @DisplayName("Testing probabilities against counting every layout")
+    public void testAgainstBruteForce() {
+        for (long seed = 0; seed < 30; seed++) {
+            Board board = new Board(5, 5, 6);
+            board.setSeed(seed);
+            ProbabilityEngine engine = new ProbabilityEngine(board);
+            board.openTile(2, 2);
+            if (!board.isGameActive()) {
+                continue;
+            }
+            engine.update();
+
+            double[] expected = bruteForce(board);
+            for (int index = 0; index < 25; index++) {
+                assertEquals(expected[index], engine.getMineProbability(index % 5, index / 5), 1e-9,
+                        "Incorrect probability with seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing that only changed components are counted again")
+    public void testComponentCache() {
+        Board board = new Board(100, 100, 1800);
+        board.setSeed(7);
+        Solver solver = new Solver(board);
+        ProbabilityEngine engine = new ProbabilityEngine(board);
+        board.openTile(50, 50);
+        solver.solve();
+
+        engine.update();
+        int components = engine.getComponentCount();
+        assertEquals(components, engine.getComponentsCounted(), "Every component should be counted once");
+        assertTrue(components > 5, "Board should have several frontier components");
+
+        engine.update();
+        assertEquals(components, engine.getComponentsCounted(), "Unchanged components should not be counted again");
+
+        int safest = engine.findSafestTile();
+        board.openTile(safest % 100, safest / 100);
+        engine.update();
+        assertTrue(engine.getComponentsCounted() - components < components,
+                "Only the components around the opened tile should be counted again");
+    }
+
+    @Test
+    @DisplayName("Testing that guessing by probability beats guessing at random")
+    public void testProbabilityStrategy() {
+        double solverWinRate = new Simulator(BoardConfig.MEDIUM, SolverStrategy::new).run(0, 2000).getWinRate();
+        double probabilityWinRate = new Simulator(BoardConfig.MEDIUM, ProbabilityStrategy::new).run(0, 2000)
+                .getWinRate();
+
+        assertTrue(probabilityWinRate > solverWinRate, "Guessing by probability should win more games");
+    }
+
+    // Counts every placement of the remaining mines on the closed tiles that fits
+    // the open numbers
+    private static double[] bruteForce(Board board) {
+        int numTiles = board.getWidth() * board.getHeight();
+        int[] closed = new int[numTiles];
+        int numClosed = 0;
+        for (int index = 0; index < numTiles; index++) {
+            if (!board.getTile(index % 5, index / 5).isOpen()) {
+                closed[numClosed++] = index;
+            }
+        }
+
+        double[] mines = new double[numTiles];
+        long layouts = 0;
+        for (int layout = 0; layout < 1 << numClosed; layout++) {
+            if (Integer.bitCount(layout) != board.getNumBombs()) {
+                continue;
+            }
+            boolean[] bomb = new boolean[numTiles];
+            for (int i = 0; i < numClosed; i++) {
+                bomb[closed[i]] = (layout >> i & 1) != 0;
+            }
+            if (fitsNumbers(board, bomb)) {
+                layouts++;
+                for (int index = 0; index < numTiles; index++) {
+                    mines[index] += bomb[index] ? 1 : 0;
+                }
+            }
+        }
+
+        for (int index = 0; index < numTiles; index++) {
+            mines[index] /= layouts;
+        }
+        return mines;
+    }
+
+    private static boolean fitsNumbers(Board board, boolean[] bomb) {
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 5; x++) {
+                if (!board.getTile(x, y).isOpen()) {
+                    continue;
+                }
+                int around = 0;
+                for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, 4); j++) {
+                    for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, 4); i++) {
+                        around += bomb[j * 5 + i] ? 1 : 0;
+                    }
+                }
+                if (around != board.getTile(x, y).getBombsAround()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package minesweeper.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import minesweeper.Board;
+import minesweeper.BoardConfig;
+import minesweeper.simulation.SimulationResult;
+import minesweeper.simulation.Simulator;
+
+public class SolverTest {
+    @Test
+    @DisplayName("Testing solving with single tile constraints")
+    public void testSinglePointRules() {
+        // Four bombs around an enclosed tile, which is only safe once the bombs
+        // around it are flagged. The blank areas on both sides of the bombs are
+        // opened first
+        Board board = new Board(9, 9, 4);
+        board.preventAutoGeneratingBombLayout();
+        board.placeBombAtTile(6, 5);
+        board.placeBombAtTile(6, 7);
+        board.placeBombAtTile(5, 6);
+        board.placeBombAtTile(7, 6);
+        board.openTile(0, 0);
+        board.openTile(8, 8);
+        assertFalse(board.getTile(6, 6).isOpen(), "Enclosed tile should not be opened by the first click");
+
+        Solver solver = new Solver(board);
+        solver.solve();
+
+        assertTrue(board.hasWon(), "Solver should win the game");
+        assertEquals(4, board.getFlagCount(), "Solver should flag every bomb");
+        assertTrue(board.getTile(6, 5).isFlagged(), "Bomb should be flagged");
+        assertTrue(board.getTile(6, 6).isOpen(), "Enclosed tile should be opened by the solver");
+    }
+
+    @Test
+    @DisplayName("Testing solving with overlapping constraints")
+    public void testSubsetRules() {
+        // Open numbers 1 1 2 1 1 below a closed row with bombs over the second and
+        // fourth tile, with open blank rows below. No single number is solved on its
+        // own
+        Board board = new Board(5, 4, 2);
+        board.preventAutoGeneratingBombLayout();
+        board.placeBombAtTile(1, 0);
+        board.placeBombAtTile(3, 0);
+        for (int y = 1; y < 4; y++) {
+            for (int x = 0; x < 5; x++) {
+                board.setTileProps(x, y, false, false, true);
+            }
+        }
+
+        Solver solver = new Solver(board);
+        solver.solve();
+
+        assertTrue(board.hasWon(), "Solver should win the game");
+        assertTrue(board.getTile(1, 0).isFlagged(), "Bomb should be flagged");
+        assertTrue(board.getTile(3, 0).isFlagged(), "Bomb should be flagged");
+    }
+
+    @Test
+    @DisplayName("Testing that the solver only makes safe moves")
+    public void testSafeMoves() {
+        for (long seed = 0; seed < 20; seed++) {
+            Board board = new Board(100, 100, 1500);
+            board.setSeed(seed);
+            Solver solver = new Solver(board);
+            board.openTile(50, 50);
+            solver.solve();
+
+            assertFalse(board.isGameOver(), "Solver should never open a bomb");
+            for (int y = 0; y < 100; y++) {
+                for (int x = 0; x < 100; x++) {
+                    if (board.getTile(x, y).isFlagged()) {
+                        assertTrue(board.getTile(x, y).isBomb(), "Solver should only flag bombs");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing that the incremental solver finds as much as a full rescan")
+    public void testSameAsRescan() {
+        for (long seed = 0; seed < 300; seed++) {
+            BoardConfig config = seed % 3 == 0 ? BoardConfig.HARD : new BoardConfig(50, 50, 500);
+            Board board = config.createBoard();
+            board.setSeed(seed);
+            Solver solver = new Solver(board);
+            board.openTile(config.getWidth() / 2, config.getHeight() / 2);
+            solver.solve();
+            solver.detach();
+
+            // A new solver queues every open tile, which rescans the whole board
+            Solver rescan = new Solver(board);
+            assertEquals(0, rescan.solve(), "A full rescan should find nothing more (seed " + seed + ")");
+            rescan.detach();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing that the solver beats random play")
+    public void testSolverStrategy() {
+        SimulationResult result = new Simulator(BoardConfig.EASY, SolverStrategy::new).run(0, 1000);
+
+        assertEquals(0, result.getUnfinished(), "Every game should be finished");
+        assertTrue(result.getWinRate() > 0.5, "Solver should win most easy games");
+    }
+}